@@ -0,0 +1,117 @@
+package com.thewaterfall.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.*;
+import okio.BufferedSink;
+import okio.Okio;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the steps of building a request and reading a response, without the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FluentBuilderBenchmark {
+  private static final MediaType JSON = MediaType.get("application/json");
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private FluentRequest.Builder<byte[]> headers;
+  private FluentRequest.Builder<byte[]> noHeaders;
+  private FluentRequest.Builder<byte[]> body;
+  private FluentRequest.Builder<Item[]> items;
+  private Request request;
+
+  private List<Item> payload;
+  private byte[] small;
+  private byte[] large;
+
+  @Setup
+  public void setup() throws IOException {
+    headers = FluentRequest.request("https://api.example.com/items")
+        .bearer("token")
+        .header("Accept", "application/json")
+        .header("X-Request-Source", "benchmark");
+
+    noHeaders = FluentRequest.request("https://api.example.com/items");
+    body = FluentRequest.request("https://api.example.com/items");
+    items = FluentRequest.request("https://api.example.com/items", Item[].class);
+    request = new Request.Builder().url("https://api.example.com/items").build();
+
+    payload = items(1000);
+    small = mapper.writeValueAsBytes(items(1));
+    large = mapper.writeValueAsBytes(items(10000));
+  }
+
+  @Benchmark
+  public Headers buildHeaders() {
+    return headers.buildHeaders();
+  }
+
+  @Benchmark
+  public Headers buildEmptyHeaders() {
+    return noHeaders.buildHeaders();
+  }
+
+  @Benchmark
+  public void serializeBody() throws IOException {
+    BufferedSink sink = Okio.buffer(Okio.blackhole());
+
+    body.body(payload).buildBody().writeTo(sink);
+    sink.flush();
+  }
+
+  @Benchmark
+  public Item[] deserializeSmall() throws IOException {
+    return items.deserializeAsJson(response(small));
+  }
+
+  @Benchmark
+  public Item[] deserializeLarge() throws IOException {
+    return items.deserializeAsJson(response(large));
+  }
+
+  private Response response(byte[] body) {
+    return new Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(200)
+        .message("OK")
+        .body(ResponseBody.create(body, JSON))
+        .build();
+  }
+
+  private static List<Item> items(int count) {
+    List<Item> items = new ArrayList<>(count);
+
+    for (int i = 0; i < count; i++) {
+      items.add(new Item(i, "Item " + i, i * 1.5));
+    }
+
+    return items;
+  }
+
+  public static class Item {
+    public long id;
+    public String name;
+    public double price;
+
+    public Item() {
+    }
+
+    public Item(long id, String name, double price) {
+      this.id = id;
+      this.name = name;
+      this.price = price;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.thewaterfall.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thewaterfall.request.misc.FluentCborCodec;
+import com.thewaterfall.request.misc.FluentCodec;
+import com.thewaterfall.request.misc.FluentJacksonCodec;
+import com.thewaterfall.request.misc.FluentSmileCodec;
+import okhttp3.MediaType;
+import okio.Buffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the serialization and deserialization of a payload in JSON, Smile and CBOR.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FluentCodecBenchmark {
+  @Param({"json", "smile", "cbor"})
+  public String format;
+
+  private FluentCodec codec;
+  private List<FluentBuilderBenchmark.Item> payload;
+  private byte[] serialized;
+
+  @Setup
+  public void setup() throws IOException {
+    switch (format) {
+      case "smile":
+        codec = new FluentSmileCodec();
+        break;
+      case "cbor":
+        codec = new FluentCborCodec();
+        break;
+      default:
+        codec = new FluentJacksonCodec(new ObjectMapper(), MediaType.get("application/json"));
+    }
+
+    payload = new ArrayList<>();
+
+    for (int i = 0; i < 1000; i++) {
+      payload.add(new FluentBuilderBenchmark.Item(i, "Item " + i, i * 1.5));
+    }
+
+    Buffer buffer = new Buffer();
+    codec.write(payload, buffer.outputStream());
+    serialized = buffer.readByteArray();
+  }
+
+  @Benchmark
+  public long serialize() throws IOException {
+    Buffer buffer = new Buffer();
+    codec.write(payload, buffer.outputStream());
+
+    return buffer.size();
+  }
+
+  @Benchmark
+  public Object deserialize() throws IOException {
+    return codec.read(new Buffer().write(serialized).inputStream(), FluentBuilderBenchmark.Item[].class);
+  }
+}
@@ -0,0 +1,113 @@
+package com.thewaterfall.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thewaterfall.request.misc.FluentResponse;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.*;
+
+import javax.net.ServerSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks sending requests end to end against an in-process MockWebServer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FluentRequestBenchmark {
+  private MockWebServer server;
+  private String url;
+  private String body;
+  private FluentBuilderBenchmark.Item item;
+  private PreparedFluentRequest<FluentBuilderBenchmark.Item> prepared;
+
+  @Setup
+  public void setup() throws IOException {
+    item = new FluentBuilderBenchmark.Item(1, "Item 1", 1.5);
+    body = new ObjectMapper().writeValueAsString(item);
+
+    server = new MockWebServer();
+    server.setServerSocketFactory(new NoDelayServerSocketFactory());
+    server.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        return new MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody(body);
+      }
+    });
+    server.start();
+
+    url = server.url("/").toString() + "items/{id}";
+    prepared = FluentRequest.request(url, FluentBuilderBenchmark.Item.class).prepare();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  @Benchmark
+  public FluentResponse<FluentBuilderBenchmark.Item> get() {
+    return FluentRequest.request(url, FluentBuilderBenchmark.Item.class)
+        .variable("id", 1)
+        .get();
+  }
+
+  @Benchmark
+  public FluentResponse<FluentBuilderBenchmark.Item> preparedGet() {
+    return prepared.get(1);
+  }
+
+  @Benchmark
+  public FluentResponse<FluentBuilderBenchmark.Item> post() {
+    return FluentRequest.request(url, FluentBuilderBenchmark.Item.class)
+        .variable("id", 1)
+        .body(item)
+        .post();
+  }
+
+  /**
+   * Creates server sockets with Nagle's algorithm disabled on accepted connections, so responses written
+   * in several parts are not delayed until the client acknowledges the first one.
+   */
+  private static class NoDelayServerSocketFactory extends ServerSocketFactory {
+    @Override
+    public ServerSocket createServerSocket() throws IOException {
+      return new ServerSocket() {
+        @Override
+        public Socket accept() throws IOException {
+          Socket socket = super.accept();
+          socket.setTcpNoDelay(true);
+
+          return socket;
+        }
+      };
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog, InetAddress address) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.thewaterfall.request;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building URLs with variables and query parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FluentUrlBenchmark {
+  private static final String URL = "https://api.example.com/users/{id}/orders/{orderId}?expand=items";
+
+  private Map<String, Object> variables;
+  private Map<String, Object> parameters;
+  private FluentUrlTemplate template;
+
+  @Setup
+  public void setup() {
+    variables = new HashMap<>();
+    variables.put("id", 42);
+    variables.put("orderId", "a1b2c3");
+
+    parameters = new HashMap<>();
+    parameters.put("page", 1);
+    parameters.put("size", 50);
+
+    template = FluentUrlTemplate.compile(URL);
+  }
+
+  @Benchmark
+  public String fluentUrl() {
+    return FluentUrl.fromString(URL)
+        .variables(variables)
+        .parameters(parameters)
+        .build();
+  }
+
+  @Benchmark
+  public String fluentUrlTemplate() {
+    return template.expand(variables, parameters);
+  }
+}
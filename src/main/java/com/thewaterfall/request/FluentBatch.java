@@ -0,0 +1,307 @@
+package com.thewaterfall.request;
+
+import com.thewaterfall.request.misc.FluentHttpMethod;
+import com.thewaterfall.request.misc.FluentResponse;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>The FluentBatch class sends a collection of requests asynchronously with a bounded number of requests
+ * in flight, both in total and per host. Requests are sent through
+ * {@link FluentRequest.Builder#executeAsync(FluentHttpMethod)}, so they run on the OkHttp dispatcher of
+ * each builder's client and no threads are created per call.</p>
+ *
+ * <p>Requests for the same host are sent in the order they were added, and hosts are served in turns.
+ * Note that the OkHttp dispatcher applies its own limits as well (64 requests in total and 5 per host by
+ * default), so limits above those of the dispatcher have no effect.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code List<CompletableFuture<FluentResponse<User>>> users = FluentRequest.batch(requests)
+ *     .maxInFlight(32)
+ *     .maxInFlightPerHost(8)
+ *     .execute();}</pre>
+ *
+ * @param <T> The type of the response body expected.
+ * @see FluentRequest
+ */
+public class FluentBatch<T> {
+  private final List<FluentRequest.Builder<T>> requests;
+
+  private FluentHttpMethod method = FluentHttpMethod.GET;
+  private int maxInFlight = 64;
+  private int maxInFlightPerHost = 5;
+
+  private final Map<String, Deque<Pending<T>>> queues = new LinkedHashMap<>();
+  private final Map<String, Integer> inFlightPerHost = new HashMap<>();
+  private int inFlight;
+
+  private final AtomicInteger dispatching = new AtomicInteger();
+
+  /**
+   * Constructs a FluentBatch for the given requests.
+   *
+   * @param requests The requests to send.
+   */
+  public FluentBatch(Collection<FluentRequest.Builder<T>> requests) {
+    this.requests = new ArrayList<>(requests);
+  }
+
+  /**
+   * Sets the HTTP method used for all requests of the batch. Defaults to GET.
+   *
+   * @param method The HTTP method.
+   * @return The FluentBatch instance for method chaining.
+   */
+  public FluentBatch<T> method(FluentHttpMethod method) {
+    this.method = method;
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of requests of the batch in flight at once. Defaults to 64.
+   *
+   * @param maxInFlight The maximum number of requests in flight.
+   * @return The FluentBatch instance for method chaining.
+   */
+  public FluentBatch<T> maxInFlight(int maxInFlight) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("Max in flight must be positive: " + maxInFlight);
+    }
+
+    this.maxInFlight = maxInFlight;
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of requests of the batch in flight at once for a single host. Defaults to 5.
+   *
+   * @param maxInFlightPerHost The maximum number of requests in flight per host.
+   * @return The FluentBatch instance for method chaining.
+   */
+  public FluentBatch<T> maxInFlightPerHost(int maxInFlightPerHost) {
+    if (maxInFlightPerHost < 1) {
+      throw new IllegalArgumentException("Max in flight per host must be positive: " + maxInFlightPerHost);
+    }
+
+    this.maxInFlightPerHost = maxInFlightPerHost;
+    return this;
+  }
+
+  /**
+   * Sends the requests of the batch and returns their futures in the order the requests were added.
+   * Cancelling a future cancels the request, or skips it if it has not been sent yet.
+   *
+   * @return The futures of the responses, in the order of the requests.
+   */
+  public List<CompletableFuture<FluentResponse<T>>> execute() {
+    List<CompletableFuture<FluentResponse<T>>> results = new ArrayList<>(requests.size());
+
+    synchronized (this) {
+      for (FluentRequest.Builder<T> request : requests) {
+        Pending<T> pending = new Pending<>(request, request.host());
+
+        queues.computeIfAbsent(pending.host, host -> new ArrayDeque<>()).add(pending);
+        results.add(pending.result);
+      }
+    }
+
+    dispatch();
+
+    return Collections.unmodifiableList(results);
+  }
+
+  /**
+   * Sends the requests of the batch and returns an iterator over their futures in the order they
+   * complete. {@link Iterator#next()} blocks until the next request completes.
+   *
+   * @return An iterator of completed futures of the responses.
+   */
+  public Iterator<CompletableFuture<FluentResponse<T>>> executeUnordered() {
+    BlockingQueue<CompletableFuture<FluentResponse<T>>> completed = new LinkedBlockingQueue<>();
+    List<CompletableFuture<FluentResponse<T>>> results = execute();
+
+    for (CompletableFuture<FluentResponse<T>> result : results) {
+      result.whenComplete((response, e) -> completed.add(result));
+    }
+
+    return new Iterator<CompletableFuture<FluentResponse<T>>>() {
+      private int remaining = results.size();
+
+      @Override
+      public boolean hasNext() {
+        return remaining > 0;
+      }
+
+      @Override
+      public CompletableFuture<FluentResponse<T>> next() {
+        if (remaining == 0) {
+          throw new NoSuchElementException();
+        }
+
+        try {
+          CompletableFuture<FluentResponse<T>> result = completed.take();
+          remaining--;
+
+          return result;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while waiting for the next response", e);
+        }
+      }
+    };
+  }
+
+  /**
+   * Sends as many queued requests as the limits allow, serving hosts in turns. Only one thread sends at a
+   * time: if requests complete meanwhile, including synchronously within {@link #send(Pending)}, the
+   * sending thread takes another turn instead of recursing, so the stack does not grow with the batch.
+   */
+  private void dispatch() {
+    if (dispatching.getAndIncrement() != 0) {
+      return;
+    }
+
+    int missed = 1;
+
+    do {
+      ready().forEach(this::send);
+      missed = dispatching.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /**
+   * Takes as many queued requests as the limits allow, serving hosts in turns, and counts them in flight.
+   *
+   * @return The requests to send.
+   */
+  private List<Pending<T>> ready() {
+    List<Pending<T>> ready = new ArrayList<>();
+
+    synchronized (this) {
+      boolean progress = true;
+
+      while (progress && inFlight < maxInFlight) {
+        progress = false;
+        Iterator<Map.Entry<String, Deque<Pending<T>>>> hosts = queues.entrySet().iterator();
+
+        while (hosts.hasNext() && inFlight < maxInFlight) {
+          Map.Entry<String, Deque<Pending<T>>> host = hosts.next();
+          Pending<T> pending = poll(host.getValue());
+
+          if (Objects.isNull(pending)) {
+            hosts.remove();
+            continue;
+          }
+
+          int hostInFlight = inFlightPerHost.getOrDefault(host.getKey(), 0);
+
+          if (hostInFlight >= maxInFlightPerHost) {
+            host.getValue().addFirst(pending);
+            continue;
+          }
+
+          inFlightPerHost.put(host.getKey(), hostInFlight + 1);
+          inFlight++;
+
+          ready.add(pending);
+          progress = true;
+        }
+      }
+    }
+
+    return ready;
+  }
+
+  /**
+   * Polls the next request of a host queue, dropping those that were cancelled before being sent.
+   *
+   * @param queue The host queue.
+   * @return The next request, or null if the queue is empty.
+   */
+  private Pending<T> poll(Deque<Pending<T>> queue) {
+    Pending<T> pending = queue.poll();
+
+    while (Objects.nonNull(pending) && pending.result.isDone()) {
+      pending = queue.poll();
+    }
+
+    return pending;
+  }
+
+  /**
+   * Sends a request and releases its slot once it completes.
+   *
+   * @param pending The request to send.
+   */
+  private void send(Pending<T> pending) {
+    CompletableFuture<FluentResponse<T>> call;
+
+    try {
+      call = pending.request.executeAsync(method);
+    } catch (RuntimeException e) {
+      call = new CompletableFuture<>();
+      call.completeExceptionally(e);
+    }
+
+    CompletableFuture<FluentResponse<T>> sent = call;
+
+    pending.result.whenComplete((response, e) -> {
+      if (pending.result.isCancelled()) {
+        sent.cancel(true);
+      }
+    });
+
+    call.whenComplete((response, e) -> {
+      release(pending.host);
+
+      if (Objects.isNull(e)) {
+        pending.result.complete(response);
+      } else {
+        pending.result.completeExceptionally(e);
+      }
+
+      dispatch();
+    });
+  }
+
+  /**
+   * Releases the slot held by a request to the specified host.
+   *
+   * @param host The host of the request.
+   */
+  private synchronized void release(String host) {
+    inFlight--;
+    inFlightPerHost.computeIfPresent(host, (key, count) -> count > 1 ? count - 1 : null);
+  }
+
+  /**
+   * A request of the batch along with its host and the future of its response.
+   *
+   * @param <T> The type of the response body expected.
+   */
+  private static class Pending<T> {
+    private final FluentRequest.Builder<T> request;
+    private final String host;
+    private final CompletableFuture<FluentResponse<T>> result = new CompletableFuture<>();
+
+    private Pending(FluentRequest.Builder<T> request, String host) {
+      this.request = request;
+      this.host = host;
+    }
+  }
+}
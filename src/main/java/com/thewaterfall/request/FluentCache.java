@@ -0,0 +1,205 @@
+package com.thewaterfall.request;
+
+import com.thewaterfall.request.misc.FluentResponse;
+import okhttp3.CacheControl;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>The FluentCache class is an in-memory cache of deserialized responses, bounded by the number of
+ * entries and evicting the least recently used one first. It is shared by the builders it is set on with
+ * {@link FluentRequest.Builder#cache(FluentCache, String...)}.</p>
+ *
+ * <p>Successful GET responses are cached if they have an {@code ETag}, a {@code Last-Modified} header or
+ * a {@code max-age}, unless they are marked {@code no-store}. While fresh according to {@code max-age},
+ * entries are returned without a network call. Otherwise the request is sent with
+ * {@code If-None-Match}/{@code If-Modified-Since}, and a 304 response returns the cached body without
+ * parsing it again.</p>
+ *
+ * <p>Entries are keyed by the credentials of the request along with its URL, so callers with different
+ * {@code Authorization} headers never get each other's responses. Cached bodies are shared between
+ * callers with the same credentials and must not be modified.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentCache cache = new FluentCache(1000);
+ *
+ * FluentRequest.request("https://api.example.com/countries", Country[].class)
+ *     .cache(cache)
+ *     .get();}</pre>
+ */
+public class FluentCache {
+  private final Map<String, Entry> entries;
+
+  /**
+   * Constructs a FluentCache holding up to the specified number of entries.
+   *
+   * @param maxEntries The maximum number of entries.
+   */
+  public FluentCache(int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Max entries must be positive: " + maxEntries);
+    }
+
+    this.entries = new LinkedHashMap<String, FluentCache.Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, FluentCache.Entry> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Gets the number of entries in the cache.
+   *
+   * @return The number of entries.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Removes all entries from the cache.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Gets the entry cached under the specified key.
+   *
+   * @param key The cache key.
+   * @return The entry, or null if there is none.
+   */
+  synchronized Entry get(String key) {
+    return entries.get(key);
+  }
+
+  /**
+   * Caches the deserialized body of a response under the specified key if the response is cacheable.
+   *
+   * @param key      The cache key.
+   * @param body     The deserialized body.
+   * @param response The HTTP response.
+   */
+  void put(String key, Object body, Response response) {
+    if (response.code() != 200 || response.cacheControl().noStore()) {
+      return;
+    }
+
+    String etag = response.header("ETag");
+    String lastModified = response.header("Last-Modified");
+    long expiresAt = expiresAt(response);
+
+    if (Objects.isNull(etag) && Objects.isNull(lastModified) && expiresAt == 0) {
+      return;
+    }
+
+    synchronized (this) {
+      entries.put(key, new Entry(body, response, etag, lastModified, expiresAt));
+    }
+  }
+
+  /**
+   * Refreshes the entry cached under the specified key with the validators and freshness of a 304
+   * response, keeping its body.
+   *
+   * @param key          The cache key.
+   * @param entry        The cached entry.
+   * @param notModified  The 304 response.
+   * @return The refreshed entry.
+   */
+  Entry revalidate(String key, Entry entry, Response notModified) {
+    String etag = notModified.header("ETag");
+    String lastModified = notModified.header("Last-Modified");
+
+    Entry refreshed = new Entry(entry.body, entry.response,
+        Objects.nonNull(etag) ? etag : entry.etag,
+        Objects.nonNull(lastModified) ? lastModified : entry.lastModified,
+        expiresAt(notModified));
+
+    synchronized (this) {
+      entries.put(key, refreshed);
+    }
+
+    return refreshed;
+  }
+
+  /**
+   * Computes the time until which a response is fresh from its {@code max-age}.
+   *
+   * @param response The HTTP response.
+   * @return The expiration time in milliseconds, or 0 if the response must always be revalidated.
+   */
+  private static long expiresAt(Response response) {
+    CacheControl cacheControl = response.cacheControl();
+
+    if (cacheControl.noCache() || cacheControl.maxAgeSeconds() <= 0) {
+      return 0;
+    }
+
+    return response.receivedResponseAtMillis() + cacheControl.maxAgeSeconds() * 1000L;
+  }
+
+  /**
+   * A cached deserialized body along with the response it came from and its validators.
+   */
+  static class Entry {
+    private final Object body;
+    private final Response response;
+    private final String etag;
+    private final String lastModified;
+    private final long expiresAt;
+
+    private Entry(Object body, Response response, String etag, String lastModified, long expiresAt) {
+      this.body = body;
+      this.response = response;
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Checks if the entry can be used without revalidation.
+     *
+     * @return true if the entry is fresh, false otherwise.
+     */
+    boolean isFresh() {
+      return expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Adds the validators of the entry to the request.
+     *
+     * @param request The request to revalidate the entry with.
+     * @return The conditional request.
+     */
+    Request conditional(Request request) {
+      Request.Builder builder = request.newBuilder();
+
+      if (Objects.nonNull(etag)) {
+        builder.header("If-None-Match", etag);
+      }
+
+      if (Objects.nonNull(lastModified)) {
+        builder.header("If-Modified-Since", lastModified);
+      }
+
+      return builder.build();
+    }
+
+    /**
+     * Creates a FluentResponse from the cached body and response.
+     *
+     * @param <T> The type of the response body.
+     * @return The FluentResponse.
+     */
+    @SuppressWarnings("unchecked")
+    <T> FluentResponse<T> toFluentResponse() {
+      return new FluentResponse<>((T) body, response);
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package com.thewaterfall.request;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * <p>The FluentCallMetrics class holds the metrics of a single HTTP call: its route, status, the bytes of
+ * the request and response bodies, and the time spent in each phase of the call.</p>
+ *
+ * <p>Phases that did not happen, like DNS and connection for a call on a pooled connection, take 0
+ * nanoseconds. The body read and deserialization phases overlap, since typed bodies are deserialized
+ * while they are read.</p>
+ */
+public class FluentCallMetrics {
+  private final String method;
+  private final String route;
+  private final int status;
+  private final long bytesSent;
+  private final long bytesReceived;
+  private final long[] nanos;
+  private final IOException failure;
+
+  /**
+   * Constructs FluentCallMetrics from the recorded values.
+   *
+   * @param method        The HTTP method of the call.
+   * @param route         The URL template of the call.
+   * @param status        The status code of the response, or 0 if there is none.
+   * @param bytesSent     The number of bytes of the request body.
+   * @param bytesReceived The number of bytes of the response body.
+   * @param nanos         The duration of each phase, indexed by the ordinal of the phase.
+   * @param failure       The I/O error the call failed with, or null if it did not fail.
+   */
+  FluentCallMetrics(String method, String route, int status, long bytesSent, long bytesReceived, long[] nanos,
+                    IOException failure) {
+    this.method = method;
+    this.route = route;
+    this.status = status;
+    this.bytesSent = bytesSent;
+    this.bytesReceived = bytesReceived;
+    this.nanos = nanos;
+    this.failure = failure;
+  }
+
+  /**
+   * Gets the HTTP method of the call.
+   *
+   * @return The method, like GET.
+   */
+  public String getMethod() {
+    return method;
+  }
+
+  /**
+   * Gets the URL template of the call, as passed to {@link FluentRequest#request(String)}.
+   *
+   * @return The URL template.
+   */
+  public String getRoute() {
+    return route;
+  }
+
+  /**
+   * Gets the status code of the response.
+   *
+   * @return The status code, or 0 if the call failed before a response was received.
+   */
+  public int getStatus() {
+    return status;
+  }
+
+  /**
+   * Gets the number of bytes of the request body.
+   *
+   * @return The number of bytes sent.
+   */
+  public long getBytesSent() {
+    return bytesSent;
+  }
+
+  /**
+   * Gets the number of bytes of the response body that were read.
+   *
+   * @return The number of bytes received.
+   */
+  public long getBytesReceived() {
+    return bytesReceived;
+  }
+
+  /**
+   * Gets the time spent in the specified phase of the call.
+   *
+   * @param phase The phase.
+   * @return The duration in nanoseconds.
+   */
+  public long getNanos(Phase phase) {
+    return nanos[phase.ordinal()];
+  }
+
+  /**
+   * Checks if the call failed with an I/O error, including cancellation.
+   *
+   * @return true if the call failed, false otherwise.
+   */
+  public boolean isFailed() {
+    return Objects.nonNull(failure);
+  }
+
+  /**
+   * Gets the I/O error the call failed with.
+   *
+   * @return The I/O error, or null if the call did not fail.
+   */
+  public IOException getFailure() {
+    return failure;
+  }
+
+  /**
+   * The phases of an HTTP call.
+   */
+  public enum Phase {
+    /**
+     * Resolving the host name.
+     */
+    DNS,
+
+    /**
+     * Opening the connection, including the TLS handshake.
+     */
+    CONNECT,
+
+    /**
+     * Performing the TLS handshake.
+     */
+    TLS,
+
+    /**
+     * Waiting for the response, from sending the request headers to receiving the response headers.
+     */
+    TTFB,
+
+    /**
+     * Reading the response body.
+     */
+    BODY,
+
+    /**
+     * Deserializing the response body.
+     */
+    DESERIALIZATION,
+
+    /**
+     * The whole call, from its start until its response body is closed.
+     */
+    TOTAL
+  }
+}
@@ -0,0 +1,248 @@
+package com.thewaterfall.request;
+
+import com.thewaterfall.request.misc.FluentFlightRecorder;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>The FluentCallTimer class is an OkHttp EventListener timing the phases of a single HTTP call and
+ * recording them to {@link FluentMetrics} and to its JFR event once the call is over. A timer is attached
+ * to the request of each call as a tag, and picked up by the {@link Factory} installed on the
+ * OkHttpClient.</p>
+ *
+ * <p>If the response body is deserialized, the metrics are recorded once both the call has ended and the
+ * deserialization is done, whichever comes last. The JFR event ends when the response headers are
+ * received, and is committed along with the metrics, once the bytes sent and received are known.</p>
+ */
+class FluentCallTimer extends EventListener {
+  private static final Map<OkHttpClient, OkHttpClient> instrumented =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private final FluentMetrics metrics;
+  private final Object event;
+  private final String method;
+  private final String route;
+  private final int attempt;
+
+  private final long[] nanos = new long[FluentCallMetrics.Phase.values().length];
+  private final AtomicInteger pending = new AtomicInteger(1);
+
+  private long callStart;
+  private long dnsStart;
+  private long connectStart;
+  private long secureConnectStart;
+  private long requestStart;
+  private long bodyStart;
+
+  private int status;
+  private long bytesSent;
+  private long bytesReceived;
+  private IOException failure;
+
+  /**
+   * Constructs a FluentCallTimer for a call.
+   *
+   * @param metrics The metrics to record to, or null if metrics are not recorded.
+   * @param event   The JFR event of the call, or null if it is not recorded.
+   * @param method  The HTTP method of the call.
+   * @param route   The URL template of the call.
+   * @param attempt The number of the attempt, starting at 1.
+   */
+  FluentCallTimer(FluentMetrics metrics, Object event, String method, String route, int attempt) {
+    this.metrics = metrics;
+    this.event = event;
+    this.method = method;
+    this.route = route;
+    this.attempt = attempt;
+  }
+
+  /**
+   * Installs the {@link Factory} on the OkHttpClient, unless it is already installed. The instrumented
+   * client is built once per client and reused afterwards, as long as the original client is in use.
+   * This is called when a client is set on FluentRequest or a builder, never on the path of a call.
+   *
+   * @param client The OkHttpClient.
+   * @return The OkHttpClient with the factory installed.
+   */
+  static OkHttpClient instrument(OkHttpClient client) {
+    if (client.eventListenerFactory() instanceof Factory) {
+      return client;
+    }
+
+    return instrumented.computeIfAbsent(client, source -> source.newBuilder()
+        .eventListenerFactory(new Factory(source.eventListenerFactory()))
+        .build());
+  }
+
+  /**
+   * Marks the response body as being deserialized, so that the metrics wait for the deserialization time.
+   *
+   * @return true if the metrics wait for {@link #deserialized(long)}, false if they were already recorded.
+   */
+  boolean claim() {
+    return pending.getAndUpdate(count -> count > 0 ? count + 1 : count) > 0;
+  }
+
+  /**
+   * Sets the deserialization time of a claimed response body.
+   *
+   * @param deserializationNanos The deserialization time in nanoseconds.
+   */
+  void deserialized(long deserializationNanos) {
+    nanos[FluentCallMetrics.Phase.DESERIALIZATION.ordinal()] = deserializationNanos;
+    complete();
+  }
+
+  @Override
+  public void callStart(Call call) {
+    callStart = System.nanoTime();
+  }
+
+  @Override
+  public void dnsStart(Call call, String domainName) {
+    dnsStart = System.nanoTime();
+  }
+
+  @Override
+  public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+    add(FluentCallMetrics.Phase.DNS, dnsStart);
+  }
+
+  @Override
+  public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+    connectStart = System.nanoTime();
+  }
+
+  @Override
+  public void secureConnectStart(Call call) {
+    secureConnectStart = System.nanoTime();
+  }
+
+  @Override
+  public void secureConnectEnd(Call call, Handshake handshake) {
+    add(FluentCallMetrics.Phase.TLS, secureConnectStart);
+  }
+
+  @Override
+  public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+    add(FluentCallMetrics.Phase.CONNECT, connectStart);
+  }
+
+  @Override
+  public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                            Protocol protocol, IOException ioe) {
+    add(FluentCallMetrics.Phase.CONNECT, connectStart);
+  }
+
+  @Override
+  public void requestHeadersStart(Call call) {
+    requestStart = System.nanoTime();
+  }
+
+  @Override
+  public void requestBodyEnd(Call call, long byteCount) {
+    bytesSent += byteCount;
+  }
+
+  @Override
+  public void responseHeadersStart(Call call) {
+    add(FluentCallMetrics.Phase.TTFB, requestStart);
+  }
+
+  @Override
+  public void responseHeadersEnd(Call call, Response response) {
+    status = response.code();
+    FluentFlightRecorder.endCall(event);
+  }
+
+  @Override
+  public void responseBodyStart(Call call) {
+    bodyStart = System.nanoTime();
+  }
+
+  @Override
+  public void responseBodyEnd(Call call, long byteCount) {
+    add(FluentCallMetrics.Phase.BODY, bodyStart);
+    bytesReceived += byteCount;
+  }
+
+  @Override
+  public void callEnd(Call call) {
+    complete();
+  }
+
+  @Override
+  public void callFailed(Call call, IOException ioe) {
+    failure = ioe;
+
+    if (status == 0) {
+      FluentFlightRecorder.endCall(event);
+    }
+
+    complete();
+  }
+
+  /**
+   * Adds the time elapsed since the start of a phase to the phase.
+   *
+   * @param phase The phase.
+   * @param start The time the phase started at.
+   */
+  private void add(FluentCallMetrics.Phase phase, long start) {
+    nanos[phase.ordinal()] += System.nanoTime() - start;
+  }
+
+  /**
+   * Records the metrics once the call has ended and the claimed deserialization, if any, is done.
+   */
+  private void complete() {
+    if (pending.decrementAndGet() != 0) {
+      return;
+    }
+
+    FluentFlightRecorder.commitCall(event, method, route, attempt, status, bytesSent, bytesReceived);
+
+    if (Objects.nonNull(metrics)) {
+      nanos[FluentCallMetrics.Phase.TOTAL.ordinal()] = System.nanoTime() - callStart;
+      metrics.record(new FluentCallMetrics(method, route, status, bytesSent, bytesReceived, nanos, failure));
+    }
+  }
+
+  /**
+   * The Factory class creates the EventListener of each call: the FluentCallTimer attached to its request,
+   * or the listener of the original factory of the client if there is none.
+   */
+  static class Factory implements EventListener.Factory {
+    private final EventListener.Factory delegate;
+
+    /**
+     * Constructs a Factory falling back to the specified one.
+     *
+     * @param delegate The original factory of the client.
+     */
+    Factory(EventListener.Factory delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public EventListener create(Call call) {
+      FluentCallTimer timer = call.request().tag(FluentCallTimer.class);
+      return Objects.nonNull(timer) ? timer : delegate.create(call);
+    }
+  }
+}
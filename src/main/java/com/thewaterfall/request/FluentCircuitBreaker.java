@@ -0,0 +1,370 @@
+package com.thewaterfall.request;
+
+import com.thewaterfall.request.misc.FluentCircuitOpenException;
+import okhttp3.HttpUrl;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>The FluentCircuitBreaker class stops sending requests to a host that keeps failing or responding
+ * slowly, so that callers fail fast with a {@link FluentCircuitOpenException} instead of waiting for
+ * timeouts. Each host has its own circuit.</p>
+ *
+ * <p>A circuit is closed while the share of failed or slow calls among the last calls to the host stays
+ * below the thresholds. Once a threshold is reached, the circuit opens and rejects calls for the open
+ * duration. It then becomes half-open and lets a few trial calls through: if they all succeed, the circuit
+ * closes again, otherwise it opens again.</p>
+ *
+ * <p>Calls fail if they throw an I/O error or get a 5xx response, and are slow if the response headers take
+ * longer than the slow call duration. The state is updated without locks, so a closed circuit adds only a
+ * few atomic operations to each call.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentCircuitBreaker breaker = FluentCircuitBreaker.builder()
+ *     .failureRateThreshold(0.5)
+ *     .slowCall(Duration.ofSeconds(2), 0.8)
+ *     .openDuration(Duration.ofSeconds(30))
+ *     .build();
+ *
+ * FluentRequest.overrideCircuitBreaker(breaker);}</pre>
+ */
+public class FluentCircuitBreaker {
+  private final int windowSize;
+  private final int minimumCalls;
+  private final double failureRateThreshold;
+  private final double slowCallRateThreshold;
+  private final long slowCallNanos;
+  private final long openNanos;
+  private final int halfOpenCalls;
+
+  private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+  private FluentCircuitBreaker(Builder builder) {
+    this.windowSize = builder.windowSize;
+    this.minimumCalls = Math.min(builder.minimumCalls, builder.windowSize);
+    this.failureRateThreshold = builder.failureRateThreshold;
+    this.slowCallRateThreshold = builder.slowCallRateThreshold;
+    this.slowCallNanos = builder.slowCallDuration.toNanos();
+    this.openNanos = builder.openDuration.toNanos();
+    this.halfOpenCalls = builder.halfOpenCalls;
+  }
+
+  /**
+   * Creates a new Builder for a FluentCircuitBreaker.
+   *
+   * @return A Builder instance with the default settings.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Gets the current state of the circuit of the specified host.
+   *
+   * @param host The host.
+   * @return The state of the circuit, CLOSED if no calls were made to the host.
+   */
+  public State getState(String host) {
+    Circuit circuit = circuits.get(host);
+    return Objects.nonNull(circuit) ? circuit.state() : State.CLOSED;
+  }
+
+  /**
+   * Gets the circuit of the host of the specified URL and acquires a permission to call it.
+   *
+   * @param url The URL of the request.
+   * @return The circuit, to record the outcome of the call on.
+   * @throws FluentCircuitOpenException If the circuit does not permit the call.
+   */
+  Circuit acquire(HttpUrl url) {
+    String host = url.host();
+    Circuit circuit = circuits.get(host);
+
+    if (Objects.isNull(circuit)) {
+      circuit = circuits.computeIfAbsent(host, key -> new Circuit());
+    }
+
+    if (!circuit.tryAcquire()) {
+      throw new FluentCircuitOpenException(host);
+    }
+
+    return circuit;
+  }
+
+  /**
+   * The state of a circuit.
+   */
+  public enum State {
+    /**
+     * Calls are permitted and their outcomes are recorded.
+     */
+    CLOSED,
+
+    /**
+     * Calls are rejected until the open duration has elapsed.
+     */
+    OPEN,
+
+    /**
+     * A limited number of trial calls are permitted to decide whether the circuit closes.
+     */
+    HALF_OPEN
+  }
+
+  /**
+   * The Circuit class holds the state and the sliding window of the calls to a single host.
+   */
+  class Circuit {
+    private static final int FAILED = 1;
+    private static final int SLOW = 2;
+
+    private final AtomicInteger state = new AtomicInteger(State.CLOSED.ordinal());
+    private volatile long openedAt;
+
+    private final AtomicIntegerArray outcomes = new AtomicIntegerArray(windowSize);
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger slow = new AtomicInteger();
+
+    private final AtomicInteger permits = new AtomicInteger();
+    private final AtomicInteger trials = new AtomicInteger();
+
+    /**
+     * Gets the current state of the circuit.
+     *
+     * @return The state.
+     */
+    State state() {
+      return State.values()[state.get()];
+    }
+
+    /**
+     * Tries to acquire a permission to make a call, moving an open circuit to half-open once the open
+     * duration has elapsed.
+     *
+     * @return true if the call is permitted, false otherwise.
+     */
+    boolean tryAcquire() {
+      int current = state.get();
+
+      if (current == State.CLOSED.ordinal()) {
+        return true;
+      }
+
+      if (current == State.OPEN.ordinal()) {
+        if (System.nanoTime() - openedAt < openNanos
+            || !state.compareAndSet(current, State.HALF_OPEN.ordinal())) {
+          return false;
+        }
+
+        trials.set(0);
+        permits.set(halfOpenCalls - 1);
+
+        return true;
+      }
+
+      return permits.getAndDecrement() > 0;
+    }
+
+    /**
+     * Gives back the permission of a call that was cancelled before its outcome was known.
+     */
+    void release() {
+      if (state.get() == State.HALF_OPEN.ordinal()) {
+        permits.incrementAndGet();
+      }
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     *
+     * @param startNanos The time the call started at, from {@link System#nanoTime()}.
+     * @param failure    true if the call failed.
+     */
+    void record(long startNanos, boolean failure) {
+      boolean slowCall = System.nanoTime() - startNanos >= slowCallNanos;
+      int current = state.get();
+
+      if (current == State.HALF_OPEN.ordinal()) {
+        if (failure || slowCall) {
+          open(current);
+        } else if (trials.incrementAndGet() == halfOpenCalls) {
+          reset();
+          state.compareAndSet(current, State.CLOSED.ordinal());
+        }
+
+        return;
+      }
+
+      if (current == State.OPEN.ordinal()) {
+        return;
+      }
+
+      int outcome = (failure ? FAILED : 0) | (slowCall ? SLOW : 0);
+      long call = calls.getAndIncrement();
+      int previous = outcomes.getAndSet((int) (call % windowSize), outcome);
+
+      int failures = update(failed, outcome, previous, FAILED);
+      int slowCalls = update(slow, outcome, previous, SLOW);
+      long recorded = Math.min(call + 1, windowSize);
+
+      if (recorded >= minimumCalls
+          && (failures >= failureRateThreshold * recorded || slowCalls >= slowCallRateThreshold * recorded)) {
+        open(current);
+      }
+    }
+
+    /**
+     * Updates the counter of an outcome flag for an outcome replacing a previous one in the window.
+     *
+     * @param counter  The counter of the flag.
+     * @param outcome  The recorded outcome.
+     * @param previous The outcome it replaced.
+     * @param flag     The flag.
+     * @return The updated count.
+     */
+    private int update(AtomicInteger counter, int outcome, int previous, int flag) {
+      int delta = ((outcome & flag) != 0 ? 1 : 0) - ((previous & flag) != 0 ? 1 : 0);
+      return delta == 0 ? counter.get() : counter.addAndGet(delta);
+    }
+
+    /**
+     * Opens the circuit if it is still in the expected state.
+     *
+     * @param expected The expected current state.
+     */
+    private void open(int expected) {
+      permits.set(0);
+      openedAt = System.nanoTime();
+      state.compareAndSet(expected, State.OPEN.ordinal());
+    }
+
+    /**
+     * Clears the sliding window. Only called while the circuit is half-open, when the window is not used.
+     */
+    private void reset() {
+      for (int i = 0; i < windowSize; i++) {
+        outcomes.set(i, 0);
+      }
+
+      calls.set(0);
+      failed.set(0);
+      slow.set(0);
+    }
+  }
+
+  /**
+   * The Builder class of the FluentCircuitBreaker.
+   */
+  public static class Builder {
+    private int windowSize = 100;
+    private int minimumCalls = 20;
+    private double failureRateThreshold = 0.5;
+    private double slowCallRateThreshold = 1.0;
+    private Duration slowCallDuration = Duration.ofSeconds(10);
+    private Duration openDuration = Duration.ofSeconds(30);
+    private int halfOpenCalls = 5;
+
+    private Builder() {
+    }
+
+    /**
+     * Sets the number of the last calls to a host the failure and slow call rates are computed over, and
+     * the minimum number of calls before a circuit can open. Defaults to 100 and 20.
+     *
+     * @param windowSize   The size of the sliding window.
+     * @param minimumCalls The minimum number of recorded calls.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder window(int windowSize, int minimumCalls) {
+      if (windowSize < 1 || minimumCalls < 1) {
+        throw new IllegalArgumentException("Window size and minimum calls must be positive");
+      }
+
+      this.windowSize = windowSize;
+      this.minimumCalls = minimumCalls;
+      return this;
+    }
+
+    /**
+     * Sets the share of failed calls that opens a circuit. Defaults to 0.5.
+     *
+     * @param threshold The failure rate, between 0 and 1.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder failureRateThreshold(double threshold) {
+      this.failureRateThreshold = checkRate(threshold);
+      return this;
+    }
+
+    /**
+     * Sets the duration after which a call is slow, and the share of slow calls that opens a circuit.
+     * Defaults to 10s and 1, so that a circuit only opens if all calls are slow.
+     *
+     * @param duration  The duration after which a call is slow.
+     * @param threshold The slow call rate, between 0 and 1.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder slowCall(Duration duration, double threshold) {
+      this.slowCallDuration = duration;
+      this.slowCallRateThreshold = checkRate(threshold);
+      return this;
+    }
+
+    /**
+     * Sets how long an open circuit rejects calls before letting trial calls through. Defaults to 30s.
+     *
+     * @param openDuration The open duration.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder openDuration(Duration openDuration) {
+      this.openDuration = openDuration;
+      return this;
+    }
+
+    /**
+     * Sets the number of trial calls of a half-open circuit, all of which must succeed to close it.
+     * Defaults to 5.
+     *
+     * @param halfOpenCalls The number of trial calls.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder halfOpenCalls(int halfOpenCalls) {
+      if (halfOpenCalls < 1) {
+        throw new IllegalArgumentException("Half-open calls must be positive: " + halfOpenCalls);
+      }
+
+      this.halfOpenCalls = halfOpenCalls;
+      return this;
+    }
+
+    /**
+     * Builds the FluentCircuitBreaker.
+     *
+     * @return The FluentCircuitBreaker.
+     */
+    public FluentCircuitBreaker build() {
+      return new FluentCircuitBreaker(this);
+    }
+
+    /**
+     * Checks that a rate is between 0 and 1.
+     *
+     * @param rate The rate.
+     * @return The rate.
+     */
+    private static double checkRate(double rate) {
+      if (rate <= 0 || rate > 1) {
+        throw new IllegalArgumentException("Rate must be greater than 0 and at most 1: " + rate);
+      }
+
+      return rate;
+    }
+  }
+}
@@ -0,0 +1,317 @@
+package com.thewaterfall.request;
+
+import com.thewaterfall.request.misc.FluentCodecBody;
+import com.thewaterfall.request.misc.FluentFlightRecorder;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.DeflaterSink;
+import okio.ForwardingSink;
+import okio.GzipSink;
+import okio.Okio;
+import okio.Sink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.zip.Deflater;
+
+/**
+ * <p>The FluentCompression class describes how request bodies are compressed. Bodies are compressed with
+ * gzip or deflate while they are written into the request stream, so the compressed body is never held in
+ * memory, and the {@code Content-Encoding} header is set accordingly.</p>
+ *
+ * <p>Bodies smaller than the threshold are sent uncompressed. For bodies of unknown length, like the ones
+ * serialized from objects, the body is serialized on the thread building the request, including for
+ * asynchronous requests, until it reaches the threshold, since the {@code Content-Encoding} header must be
+ * known before the body is sent. Small bodies are then sent from that buffer. Larger ones are serialized
+ * again, in full, while they are sent, so the cost of the probe is bounded by the threshold plus the
+ * internal buffer of the serializer. Requests with a {@code Content-Encoding} header of their own are left
+ * as they are.</p>
+ *
+ * <p>The server must accept compressed request bodies.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentRequest.request("https://api.example.com/ingest")
+ *     .compress(FluentCompression.gzip().threshold(4096))
+ *     .body(records)
+ *     .post();}</pre>
+ */
+public class FluentCompression {
+  private static final long DEFAULT_THRESHOLD = 1024;
+
+  private final Encoding encoding;
+  private final long threshold;
+
+  private FluentCompression(Encoding encoding, long threshold) {
+    this.encoding = encoding;
+    this.threshold = threshold;
+  }
+
+  /**
+   * Creates a compression with gzip and a threshold of 1024 bytes.
+   *
+   * @return The FluentCompression.
+   */
+  public static FluentCompression gzip() {
+    return new FluentCompression(Encoding.GZIP, DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Creates a compression with deflate, in the zlib format, and a threshold of 1024 bytes.
+   *
+   * @return The FluentCompression.
+   */
+  public static FluentCompression deflate() {
+    return new FluentCompression(Encoding.DEFLATE, DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Creates a copy of this compression with the specified threshold.
+   *
+   * @param bytes The size in bytes below which bodies are sent uncompressed, or 0 to compress all bodies.
+   * @return The FluentCompression with the new threshold.
+   */
+  public FluentCompression threshold(long bytes) {
+    if (bytes < 0) {
+      throw new IllegalArgumentException("Threshold must not be negative: " + bytes);
+    }
+
+    return new FluentCompression(encoding, bytes);
+  }
+
+  /**
+   * Gets the encoding of the compressed bodies.
+   *
+   * @return The encoding.
+   */
+  public Encoding getEncoding() {
+    return encoding;
+  }
+
+  /**
+   * Gets the size below which bodies are sent uncompressed.
+   *
+   * @return The threshold in bytes.
+   */
+  public long getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Compresses the body of the request, unless it is below the threshold or already encoded.
+   *
+   * @param request The request.
+   * @return The request with a compressed body, or the request itself.
+   */
+  Request compress(Request request) {
+    RequestBody body = request.body();
+
+    if (Objects.isNull(body) || Objects.nonNull(request.header("Content-Encoding"))) {
+      return request;
+    }
+
+    long length = length(body);
+
+    if (length >= 0 && length < threshold) {
+      return request;
+    }
+
+    if (length < 0 && threshold > 0 && !body.isOneShot()) {
+      Buffer small = probe(body);
+
+      if (Objects.nonNull(small)) {
+        return request.newBuilder()
+            .method(request.method(), RequestBody.create(small.readByteString(), body.contentType()))
+            .build();
+      }
+    }
+
+    return request.newBuilder()
+        .header("Content-Encoding", encoding.getName())
+        .method(request.method(), new CompressedBody(body, encoding))
+        .build();
+  }
+
+  /**
+   * Gets the length of the body.
+   *
+   * @param body The body.
+   * @return The length in bytes, or -1 if it is unknown.
+   */
+  private static long length(RequestBody body) {
+    try {
+      return body.contentLength();
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Writes the body into a buffer, giving up once it reaches the threshold. Bodies serialized with a codec
+   * are written straight into the buffer, and their serialization event is only recorded if the buffer is
+   * what gets sent. Other bodies are written through a sink that checks the limit on each complete
+   * segment. Errors writing the body are left to surface when the request is sent.
+   *
+   * @param body The body of unknown length.
+   * @return The buffer holding the whole body if it is smaller than the threshold, null otherwise.
+   */
+  private Buffer probe(RequestBody body) {
+    Buffer buffer = new Buffer();
+
+    try {
+      if (body instanceof FluentCodecBody) {
+        FluentCodecBody codecBody = (FluentCodecBody) body;
+        Object value = codecBody.getValue();
+        Object event = FluentFlightRecorder.beginSerialization();
+
+        codecBody.getCodec().write(value, new LimitedOutputStream(buffer, threshold));
+
+        if (Objects.nonNull(event)) {
+          FluentFlightRecorder.endSerialization(event, Objects.nonNull(value) ? value.getClass() : null,
+              codecBody.getCodec().getMediaType().toString());
+        }
+      } else {
+        BufferedSink sink = Okio.buffer(new LimitedSink(buffer, threshold));
+        body.writeTo(sink);
+        sink.flush();
+      }
+    } catch (IOException e) {
+      return null;
+    }
+
+    return buffer.size() < threshold ? buffer : null;
+  }
+
+  /**
+   * The supported encodings of request bodies.
+   */
+  public enum Encoding {
+    /**
+     * The gzip format, RFC 1952.
+     */
+    GZIP("gzip"),
+
+    /**
+     * The zlib format, RFC 1950, as the HTTP deflate encoding.
+     */
+    DEFLATE("deflate");
+
+    private final String name;
+
+    Encoding(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Gets the name of the encoding, as sent in the {@code Content-Encoding} header.
+     *
+     * @return The name of the encoding.
+     */
+    public String getName() {
+      return name;
+    }
+  }
+
+  /**
+   * The CompressedBody class is a RequestBody compressing another one while it is written.
+   */
+  private static class CompressedBody extends RequestBody {
+    private final RequestBody body;
+    private final Encoding encoding;
+
+    private CompressedBody(RequestBody body, Encoding encoding) {
+      this.body = body;
+      this.encoding = encoding;
+    }
+
+    @Override
+    public MediaType contentType() {
+      return body.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+      return -1;
+    }
+
+    @Override
+    public boolean isOneShot() {
+      return body.isOneShot();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+      // DeflaterSink leaves ending its Deflater to the caller, while GzipSink ends its own when closed.
+      Deflater deflater = encoding == Encoding.DEFLATE ? new Deflater() : null;
+      BufferedSink compressed = Okio.buffer(Objects.nonNull(deflater)
+          ? new DeflaterSink(sink, deflater)
+          : new GzipSink(sink));
+
+      try {
+        body.writeTo(compressed);
+        compressed.close();
+      } finally {
+        if (Objects.nonNull(deflater)) {
+          deflater.end();
+        }
+      }
+    }
+  }
+
+  /**
+   * The LimitedOutputStream class writes into a buffer and fails as soon as the buffer reaches a limit.
+   */
+  private static class LimitedOutputStream extends OutputStream {
+    private final Buffer buffer;
+    private final long limit;
+
+    private LimitedOutputStream(Buffer buffer, long limit) {
+      this.buffer = buffer;
+      this.limit = limit;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      buffer.writeByte(b);
+      check();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      buffer.write(b, off, len);
+      check();
+    }
+
+    private void check() throws IOException {
+      if (buffer.size() >= limit) {
+        throw new IOException("Body reaches the compression threshold");
+      }
+    }
+  }
+
+  /**
+   * The LimitedSink class is a Sink that fails once more than a limit of bytes is written into it.
+   */
+  private static class LimitedSink extends ForwardingSink {
+    private long remaining;
+
+    private LimitedSink(Sink delegate, long limit) {
+      super(delegate);
+      this.remaining = limit;
+    }
+
+    @Override
+    public void write(Buffer source, long byteCount) throws IOException {
+      remaining -= byteCount;
+
+      if (remaining < 0) {
+        throw new IOException("Body exceeds the compression threshold");
+      }
+
+      super.write(source, byteCount);
+    }
+  }
+}
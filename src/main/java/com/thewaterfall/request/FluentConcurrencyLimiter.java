@@ -0,0 +1,258 @@
+package com.thewaterfall.request;
+
+import com.thewaterfall.request.misc.FluentConcurrencyLimitException;
+import okhttp3.HttpUrl;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>The FluentConcurrencyLimiter class limits the number of requests in flight to each host, adjusting the
+ * limit to the capacity of the host, and rejects requests over the limit right away with a
+ * {@link FluentConcurrencyLimitException} instead of queueing them.</p>
+ *
+ * <p>The limit is adjusted like TCP Vegas: the latency of each response is compared to the minimum latency
+ * seen for the host, to estimate how many requests are queueing up at the host rather than being served.
+ * While that queue is short, the limit grows, and once it gets long, the limit shrinks, by the logarithm
+ * of the limit each time. Latencies only adjust the limit while at least half of it is in use, and I/O
+ * errors shrink it by 10%.</p>
+ *
+ * <p>A request is in flight until its response headers are received. The state of each host is updated
+ * without locks.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentConcurrencyLimiter limiter = FluentConcurrencyLimiter.builder()
+ *     .initialLimit(20)
+ *     .limits(4, 500)
+ *     .build();
+ *
+ * FluentRequest.overrideConcurrencyLimiter(limiter);}</pre>
+ */
+public class FluentConcurrencyLimiter {
+  private static final double BACKOFF = 0.9;
+  private static final long PROBE_INTERVAL = 1000;
+
+  private final int initialLimit;
+  private final int minLimit;
+  private final int maxLimit;
+
+  private final ConcurrentMap<String, Limit> limits = new ConcurrentHashMap<>();
+
+  private FluentConcurrencyLimiter(Builder builder) {
+    this.initialLimit = Math.max(builder.minLimit, Math.min(builder.maxLimit, builder.initialLimit));
+    this.minLimit = builder.minLimit;
+    this.maxLimit = builder.maxLimit;
+  }
+
+  /**
+   * Creates a new Builder for a FluentConcurrencyLimiter.
+   *
+   * @return A Builder instance with the default settings.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Gets the current concurrency limit of the specified host.
+   *
+   * @param host The host.
+   * @return The limit, or the initial limit if no requests were made to the host.
+   */
+  public int getLimit(String host) {
+    Limit limit = limits.get(host);
+    return Objects.nonNull(limit) ? limit.get() : initialLimit;
+  }
+
+  /**
+   * Gets the number of requests in flight to the specified host.
+   *
+   * @param host The host.
+   * @return The number of requests in flight.
+   */
+  public int getInFlight(String host) {
+    Limit limit = limits.get(host);
+    return Objects.nonNull(limit) ? limit.inFlight.get() : 0;
+  }
+
+  /**
+   * Gets the limit of the host of the specified URL and takes a place in flight.
+   *
+   * @param url The URL of the request.
+   * @return The limit, to record the outcome of the request on.
+   * @throws FluentConcurrencyLimitException If the limit is reached.
+   */
+  Limit acquire(HttpUrl url) {
+    String host = url.host();
+    Limit limit = limits.get(host);
+
+    if (Objects.isNull(limit)) {
+      limit = limits.computeIfAbsent(host, key -> new Limit());
+    }
+
+    if (!limit.tryAcquire()) {
+      throw new FluentConcurrencyLimitException(host, limit.get());
+    }
+
+    return limit;
+  }
+
+  /**
+   * The Limit class holds the limit, the requests in flight and the minimum latency of a single host.
+   */
+  class Limit {
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong estimate = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    private final AtomicLong minRtt = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong samples = new AtomicLong();
+
+    /**
+     * Gets the current limit.
+     *
+     * @return The limit.
+     */
+    int get() {
+      return (int) Double.longBitsToDouble(estimate.get());
+    }
+
+    /**
+     * Takes a place in flight if the limit is not reached.
+     *
+     * @return true if the request can be sent, false otherwise.
+     */
+    boolean tryAcquire() {
+      int limit = get();
+      int current;
+
+      do {
+        current = inFlight.get();
+
+        if (current >= limit) {
+          return false;
+        }
+      } while (!inFlight.compareAndSet(current, current + 1));
+
+      return true;
+    }
+
+    /**
+     * Gives back the place of a request that was cancelled, without adjusting the limit.
+     */
+    void release() {
+      inFlight.decrementAndGet();
+    }
+
+    /**
+     * Gives back the place of a completed request and adjusts the limit to its outcome.
+     *
+     * @param startNanos The time the request started at, from {@link System#nanoTime()}.
+     * @param dropped    true if the request failed with an I/O error.
+     */
+    void record(long startNanos, boolean dropped) {
+      long rtt = Math.max(1, System.nanoTime() - startNanos);
+      int requests = inFlight.getAndDecrement();
+      double limit = Double.longBitsToDouble(estimate.get());
+
+      if (dropped) {
+        update(limit * BACKOFF);
+        return;
+      }
+
+      long baseline = baseline(rtt);
+
+      if (requests < limit / 2) {
+        return;
+      }
+
+      double queue = limit * (1 - (double) baseline / rtt);
+      double step = Math.max(1, Math.log10(limit));
+
+      if (queue < 3 * step) {
+        update(limit + step);
+      } else if (queue > 6 * step) {
+        update(limit - step);
+      }
+    }
+
+    /**
+     * Updates the minimum latency with a new one. The minimum is reset to the latency every 1000
+     * responses, so that it follows the host if it gets slower.
+     *
+     * @param rtt The latency in nanoseconds.
+     * @return The minimum latency.
+     */
+    private long baseline(long rtt) {
+      if (samples.incrementAndGet() % PROBE_INTERVAL == 0) {
+        minRtt.set(rtt);
+        return rtt;
+      }
+
+      return minRtt.accumulateAndGet(rtt, Math::min);
+    }
+
+    /**
+     * Sets the limit, bounded by the minimum and maximum limits.
+     *
+     * @param limit The new limit.
+     */
+    private void update(double limit) {
+      estimate.set(Double.doubleToLongBits(Math.max(minLimit, Math.min(maxLimit, limit))));
+    }
+  }
+
+  /**
+   * The Builder class of the FluentConcurrencyLimiter.
+   */
+  public static class Builder {
+    private int initialLimit = 20;
+    private int minLimit = 1;
+    private int maxLimit = 200;
+
+    private Builder() {
+    }
+
+    /**
+     * Sets the limit of each host before it is adjusted. Defaults to 20.
+     *
+     * @param initialLimit The initial limit.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder initialLimit(int initialLimit) {
+      if (initialLimit < 1) {
+        throw new IllegalArgumentException("Initial limit must be positive: " + initialLimit);
+      }
+
+      this.initialLimit = initialLimit;
+      return this;
+    }
+
+    /**
+     * Sets the bounds of the limit. Defaults to 1 and 200.
+     *
+     * @param minLimit The minimum limit.
+     * @param maxLimit The maximum limit.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder limits(int minLimit, int maxLimit) {
+      if (minLimit < 1 || maxLimit < minLimit) {
+        throw new IllegalArgumentException("Limits must be positive and ordered: " + minLimit + ", " + maxLimit);
+      }
+
+      this.minLimit = minLimit;
+      this.maxLimit = maxLimit;
+      return this;
+    }
+
+    /**
+     * Builds the FluentConcurrencyLimiter.
+     *
+     * @return The FluentConcurrencyLimiter.
+     */
+    public FluentConcurrencyLimiter build() {
+      return new FluentConcurrencyLimiter(this);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.thewaterfall.request;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>The FluentHedgePolicy class describes when a duplicate of a slow request with a safe method, like GET,
+ * is sent. If the request has not completed after the hedge delay, a second one is sent, the first
+ * successful response of the two is used and the other call is cancelled. The duplicate counts as an
+ * attempt of the retry policy of the request, so the two calls share its attempts instead of each being
+ * retried in full. Streamed responses are never hedged.</p>
+ *
+ * <p>The delay is either fixed, or learned as a percentile of the latencies of recent successful
+ * requests using the policy, so that only the slowest requests are hedged.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentHedgePolicy hedge = FluentHedgePolicy.percentile(0.95, Duration.ofMillis(100));
+ *
+ * FluentRequest.request("https://api.example.com/articles/1", Article.class)
+ *     .hedge(hedge)
+ *     .get();}</pre>
+ */
+public class FluentHedgePolicy {
+  private static final int WINDOW = 256;
+  private static final int REFRESH = 64;
+
+  private final double percentile;
+  private final long minDelayMillis;
+
+  private final AtomicLongArray latencies = new AtomicLongArray(WINDOW);
+  private final AtomicLong samples = new AtomicLong();
+  private volatile long delayMillis;
+
+  private FluentHedgePolicy(double percentile, long delayMillis) {
+    this.percentile = percentile;
+    this.minDelayMillis = delayMillis;
+    this.delayMillis = delayMillis;
+  }
+
+  /**
+   * Creates a policy that hedges requests after a fixed delay.
+   *
+   * @param delay The delay after which a duplicate request is sent.
+   * @return The FluentHedgePolicy.
+   */
+  public static FluentHedgePolicy delay(Duration delay) {
+    return new FluentHedgePolicy(0, delay.toMillis());
+  }
+
+  /**
+   * Creates a policy that hedges requests after the given percentile of the latencies of the last
+   * 256 successful requests, using the initial delay until enough latencies are known.
+   *
+   * @param percentile   The percentile of latencies, between 0 and 1, like 0.95.
+   * @param initialDelay The delay used until enough latencies are known, also used as the minimum delay.
+   * @return The FluentHedgePolicy.
+   */
+  public static FluentHedgePolicy percentile(double percentile, Duration initialDelay) {
+    if (percentile <= 0 || percentile >= 1) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 1: " + percentile);
+    }
+
+    return new FluentHedgePolicy(percentile, initialDelay.toMillis());
+  }
+
+  /**
+   * Gets the current delay after which a duplicate request is sent.
+   *
+   * @return The delay in milliseconds.
+   */
+  public long getDelayMillis() {
+    return delayMillis;
+  }
+
+  /**
+   * Records the latency of a successful request. For percentile policies, the delay is recomputed every
+   * 64 latencies.
+   *
+   * @param latencyMillis The latency in milliseconds.
+   */
+  void record(long latencyMillis) {
+    if (percentile == 0) {
+      return;
+    }
+
+    long sample = samples.getAndIncrement();
+    latencies.set((int) (sample % WINDOW), latencyMillis);
+
+    if (sample + 1 >= REFRESH && (sample + 1) % REFRESH == 0) {
+      refresh((int) Math.min(sample + 1, WINDOW));
+    }
+  }
+
+  /**
+   * Recomputes the delay from the recorded latencies.
+   *
+   * @param count The number of recorded latencies.
+   */
+  private void refresh(int count) {
+    long[] sorted = new long[count];
+
+    for (int i = 0; i < count; i++) {
+      sorted[i] = latencies.get(i);
+    }
+
+    Arrays.sort(sorted);
+
+    int index = (int) Math.min(count - 1, Math.ceil(percentile * count) - 1);
+    delayMillis = Math.max(minDelayMillis, sorted[Math.max(0, index)]);
+  }
+}
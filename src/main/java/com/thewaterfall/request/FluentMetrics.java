@@ -0,0 +1,28 @@
+package com.thewaterfall.request;
+
+/**
+ * <p>The FluentMetrics interface receives the metrics of each HTTP call sent by FluentRequest, including
+ * the attempts that are retried or hedged. Calls are identified by their method and URL template rather
+ * than their final URL, so the number of distinct routes stays bounded.</p>
+ *
+ * <p>Metrics are recorded on the thread that completes the call, so implementations must be thread-safe
+ * and should not block. {@link FluentRouteMetrics} is a lock-free implementation keeping counters and
+ * latency histograms per route.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentRouteMetrics metrics = new FluentRouteMetrics();
+ * FluentRequest.overrideMetrics(metrics);
+ *
+ * FluentRouteMetrics.Route route = metrics.getRoute("GET", "https://api.example.com/articles/{id}");
+ * long p99 = route.getLatency(FluentCallMetrics.Phase.TOTAL).getPercentile(0.99);}</pre>
+ *
+ * @see FluentRequest#overrideMetrics(FluentMetrics)
+ */
+public interface FluentMetrics {
+  /**
+   * Records the metrics of a completed or failed HTTP call.
+   *
+   * @param call The metrics of the call.
+   */
+  void record(FluentCallMetrics call);
+}
@@ -0,0 +1,301 @@
+package com.thewaterfall.request;
+
+import okhttp3.HttpUrl;
+import okhttp3.Response;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>The FluentRateLimiter class spaces out requests so that they stay within the quotas of an API. Limits
+ * are set per host, per URL template, or as a default for every host. A request waits until it is allowed
+ * by the limit of its URL template and by the limit of its host: synchronous requests block, asynchronous
+ * requests are sent later without blocking any thread.</p>
+ *
+ * <p>Each limit is a generic cell rate algorithm, equivalent to a token bucket holding as many permits as
+ * the limit allows per period, and refilled evenly over the period. Its state is a single atomic
+ * timestamp, so a request that is allowed right away costs only a compare-and-set.</p>
+ *
+ * <p>The limiter also adapts to the server: after a 429 or 503 response with a {@code Retry-After} header,
+ * or a response with {@code RateLimit-Remaining: 0} and a {@code RateLimit-Reset} header, requests to the
+ * same URL template, or the same host if the template has no limit, wait until the server allows them
+ * again.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentRateLimiter limiter = FluentRateLimiter.builder()
+ *     .limit(50, Duration.ofSeconds(1))
+ *     .host("api.github.com", 5000, Duration.ofHours(1))
+ *     .route("https://api.example.com/search?q={query}", 10, Duration.ofMinutes(1))
+ *     .build();
+ *
+ * FluentRequest.overrideRateLimiter(limiter);}</pre>
+ */
+public class FluentRateLimiter {
+  private final Limit defaultLimit;
+  private final Map<String, Limit> hostLimits;
+  private final Map<String, Limit> routeLimits;
+
+  private final ConcurrentMap<String, Bucket> hosts = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Bucket> routes = new ConcurrentHashMap<>();
+
+  private FluentRateLimiter(Builder builder) {
+    this.defaultLimit = builder.defaultLimit;
+    this.hostLimits = new HashMap<>(builder.hostLimits);
+    this.routeLimits = new HashMap<>(builder.routeLimits);
+  }
+
+  /**
+   * Creates a new Builder for a FluentRateLimiter.
+   *
+   * @return A Builder instance without any limits.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Reserves a permit for a request to the specified URL template and URL.
+   *
+   * @param route The URL template of the request.
+   * @param url   The final URL of the request.
+   * @return The time to wait before sending the request, in nanoseconds.
+   */
+  long reserve(String route, HttpUrl url) {
+    long now = System.nanoTime();
+    long wait = 0;
+
+    Bucket routeBucket = bucket(routes, routeLimits, route, null);
+
+    if (Objects.nonNull(routeBucket)) {
+      wait = routeBucket.reserve(now);
+    }
+
+    Bucket hostBucket = bucket(hosts, hostLimits, url.host(), defaultLimit);
+
+    if (Objects.nonNull(hostBucket)) {
+      wait = Math.max(wait, hostBucket.reserve(now));
+    }
+
+    return wait;
+  }
+
+  /**
+   * Adapts to the rate limit headers of a response, pausing the requests to the URL template, or to the
+   * host if the template has no limit, until the server allows them again.
+   *
+   * @param route    The URL template of the request.
+   * @param url      The final URL of the request.
+   * @param response The response.
+   */
+  void record(String route, HttpUrl url, Response response) {
+    long pauseMillis = pauseMillis(response);
+
+    if (pauseMillis <= 0) {
+      return;
+    }
+
+    Bucket bucket = bucket(routes, routeLimits, route, null);
+
+    if (Objects.isNull(bucket)) {
+      bucket = bucket(hosts, hostLimits, url.host(), Limit.UNLIMITED);
+    }
+
+    bucket.pause(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseMillis));
+  }
+
+  /**
+   * Gets the bucket for the specified key, creating it on first use.
+   *
+   * @param buckets  The buckets by key.
+   * @param limits   The configured limits by key.
+   * @param key      The host or URL template.
+   * @param fallback The limit to use if none is configured for the key, or null for no bucket.
+   * @return The bucket, or null if the key has no limit.
+   */
+  private static Bucket bucket(ConcurrentMap<String, Bucket> buckets, Map<String, Limit> limits, String key,
+                               Limit fallback) {
+    Bucket bucket = buckets.get(key);
+
+    if (Objects.nonNull(bucket)) {
+      return bucket;
+    }
+
+    Limit limit = limits.getOrDefault(key, fallback);
+    return Objects.nonNull(limit) ? buckets.computeIfAbsent(key, k -> new Bucket(limit)) : null;
+  }
+
+  /**
+   * Computes how long the server asks to pause requests for, from the {@code Retry-After} header of a 429
+   * or 503 response, or the {@code RateLimit-Remaining} and {@code RateLimit-Reset} headers.
+   *
+   * @param response The response.
+   * @return The pause in milliseconds, or 0 if there is none.
+   */
+  private static long pauseMillis(Response response) {
+    if (response.code() == 429 || response.code() == 503) {
+      String retryAfter = response.header("Retry-After");
+
+      if (Objects.nonNull(retryAfter)) {
+        long seconds = parseSeconds(retryAfter);
+
+        if (seconds >= 0) {
+          return TimeUnit.SECONDS.toMillis(seconds);
+        }
+
+        Date date = response.headers().getDate("Retry-After");
+        return Objects.nonNull(date) ? date.getTime() - System.currentTimeMillis() : 0;
+      }
+    }
+
+    if ("0".equals(response.header("RateLimit-Remaining"))) {
+      String reset = response.header("RateLimit-Reset");
+      return Objects.nonNull(reset) ? TimeUnit.SECONDS.toMillis(parseSeconds(reset)) : 0;
+    }
+
+    return 0;
+  }
+
+  /**
+   * Parses a header value as a number of seconds.
+   *
+   * @param value The header value.
+   * @return The number of seconds, or -1 if the value is not a number.
+   */
+  private static long parseSeconds(String value) {
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * The Limit class holds the emission interval and burst tolerance of a limit.
+   */
+  private static class Limit {
+    private static final Limit UNLIMITED = new Limit(0, 0);
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    private Limit(long intervalNanos, long toleranceNanos) {
+      this.intervalNanos = intervalNanos;
+      this.toleranceNanos = toleranceNanos;
+    }
+
+    private static Limit of(int permits, Duration period) {
+      if (permits < 1 || period.isNegative() || period.isZero()) {
+        throw new IllegalArgumentException("Permits and period must be positive");
+      }
+
+      long interval = period.toNanos() / permits;
+      return new Limit(interval, interval * (permits - 1));
+    }
+  }
+
+  /**
+   * The Bucket class holds the theoretical arrival time of the next request for a single limit.
+   */
+  private static class Bucket {
+    private final Limit limit;
+    private final AtomicLong arrival = new AtomicLong(System.nanoTime());
+
+    private Bucket(Limit limit) {
+      this.limit = limit;
+    }
+
+    /**
+     * Reserves a permit, moving the theoretical arrival time forward by one interval.
+     *
+     * @param now The current time in nanoseconds.
+     * @return The time to wait before the permit can be used, in nanoseconds.
+     */
+    private long reserve(long now) {
+      long current;
+      long next;
+
+      do {
+        current = arrival.get();
+        next = Math.max(current, now) + limit.intervalNanos;
+      } while (!arrival.compareAndSet(current, next));
+
+      return Math.max(0, current - limit.toleranceNanos - now);
+    }
+
+    /**
+     * Pauses the bucket until the specified time, without allowing a burst right after.
+     *
+     * @param until The time in nanoseconds.
+     */
+    private void pause(long until) {
+      long blocked = until + limit.toleranceNanos;
+      arrival.accumulateAndGet(blocked, (current, value) -> current - value < 0 ? value : current);
+    }
+  }
+
+  /**
+   * The Builder class of the FluentRateLimiter.
+   */
+  public static class Builder {
+    private Limit defaultLimit;
+    private final Map<String, Limit> hostLimits = new HashMap<>();
+    private final Map<String, Limit> routeLimits = new HashMap<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Sets the default limit of every host without its own limit.
+     *
+     * @param permits The number of requests allowed per period, which is also the maximum burst.
+     * @param period  The period.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder limit(int permits, Duration period) {
+      this.defaultLimit = Limit.of(permits, period);
+      return this;
+    }
+
+    /**
+     * Sets the limit of a host.
+     *
+     * @param host    The host, like api.example.com.
+     * @param permits The number of requests allowed per period, which is also the maximum burst.
+     * @param period  The period.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder host(String host, int permits, Duration period) {
+      this.hostLimits.put(host, Limit.of(permits, period));
+      return this;
+    }
+
+    /**
+     * Sets the limit of a URL template, applied in addition to the limit of its host.
+     *
+     * @param template The URL template, exactly as passed to {@link FluentRequest#request(String)}.
+     * @param permits  The number of requests allowed per period, which is also the maximum burst.
+     * @param period   The period.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder route(String template, int permits, Duration period) {
+      this.routeLimits.put(template, Limit.of(permits, period));
+      return this;
+    }
+
+    /**
+     * Builds the FluentRateLimiter.
+     *
+     * @return The FluentRateLimiter.
+     */
+    public FluentRateLimiter build() {
+      return new FluentRateLimiter(this);
+    }
+  }
+}
@@ -1,14 +1,24 @@
 package com.thewaterfall.request;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.thewaterfall.request.misc.*;
 import okhttp3.*;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * <p>The FluentRequest class is a versatile HTTP request builder that provides a fluent interface
@@ -17,7 +27,8 @@ import java.util.concurrent.TimeUnit;
  *
  * <p>It uses a predefined OkHttpClient and if it needs to be customized and configured,
  * use {@link FluentRequest#overrideClient(OkHttpClient)}. Same for Jackson ObjectMapper,
- * use {@link FluentRequest#overrideMapper(ObjectMapper)}</p>
+ * use {@link FluentRequest#overrideMapper(ObjectMapper)}, and for the codecs of other body formats,
+ * use {@link FluentRequest#overrideCodecs(FluentCodecs)}</p>
  *
  * <p>Example usage:</p>
  * <pre>{@code FluentRequest.request("https://api.example.com", Example.class)
@@ -26,13 +37,37 @@ import java.util.concurrent.TimeUnit;
  *     .post();}</pre>
  */
 public class FluentRequest {
-  private static OkHttpClient client = new OkHttpClient.Builder()
+  private static OkHttpClient client = FluentCallTimer.instrument(new OkHttpClient.Builder()
       .connectTimeout(10, TimeUnit.SECONDS)
       .writeTimeout(10, TimeUnit.SECONDS)
       .readTimeout(30,TimeUnit.SECONDS)
-      .build();
+      .build());
 
-  private static ObjectMapper mapper = new ObjectMapper();
+  private static FluentCodecs codecs = FluentCodecs.json(new ObjectMapper());
+
+  private static Executor executor = Runnable::run;
+
+  private static FluentRetryPolicy retryPolicy;
+
+  private static FluentCircuitBreaker circuitBreaker;
+
+  private static FluentRateLimiter rateLimiter;
+
+  private static FluentConcurrencyLimiter concurrencyLimiter;
+
+  private static FluentMetrics metrics;
+
+  private static FluentCompression compression;
+
+  private static final int VIRTUAL_MAX_REQUESTS = 10_000;
+  private static final int VIRTUAL_MAX_REQUESTS_PER_HOST = 10_000;
+
+  private static final int MAX_CACHED_TEMPLATES = 1024;
+  private static final FluentTemplateCache templates = new FluentTemplateCache(MAX_CACHED_TEMPLATES);
+
+  private static final FluentSingleFlight flights = new FluentSingleFlight();
+
+  private static final Headers EMPTY_HEADERS = Headers.of();
 
   /**
    * <p>Initiates a new HTTP request builder with the specified URL and no response type (no body deserialization will
@@ -146,22 +181,187 @@ public class FluentRequest {
     return new Builder<>(url, responseType, client);
   }
 
+  /**
+   * <p>Creates a batch for sending the specified requests asynchronously with a bounded number of
+   * requests in flight.</p>
+   *
+   * <p>Example:</p>
+   * <pre>{@code
+   * FluentRequest.batch(requests)
+   *     .maxInFlightPerHost(8)
+   *     .execute();
+   * }</pre>
+   *
+   * @param requests The requests to send.
+   * @param <T>      The type of the expected response.
+   * @return A FluentBatch instance for configuring and sending the batch.
+   * @see FluentBatch
+   */
+  public static <T> FluentBatch<T> batch(Collection<Builder<T>> requests) {
+    return new FluentBatch<>(requests);
+  }
+
   /**
    * Overrides the default OkHttpClient used for making HTTP requests.
    *
    * @param newClient The OkHttpClient to use for HTTP requests.
    */
   public static void overrideClient(OkHttpClient newClient) {
-    client = newClient;
+    client = FluentCallTimer.instrument(newClient);
   }
 
   /**
-   * Overrides the default ObjectMapper used for JSON serialization and deserialization.
+   * Overrides the default ObjectMapper used for JSON serialization and deserialization, keeping the
+   * other registered codecs. Readers and writers cached for the previous mapper are discarded.
    *
    * @param newMapper The ObjectMapper to use for JSON processing.
    */
   public static void overrideMapper(ObjectMapper newMapper) {
-    mapper = newMapper;
+    codecs = codecs.withMapper(newMapper);
+  }
+
+  /**
+   * Overrides the default codecs used by requests without their own to serialize request bodies and
+   * deserialize response bodies, picked by the type of the body and the content type of the response. By
+   * default, bodies are JSON.
+   *
+   * @param newCodecs The FluentCodecs to use.
+   * @see FluentCodecs
+   */
+  public static void overrideCodecs(FluentCodecs newCodecs) {
+    codecs = newCodecs;
+  }
+
+  /**
+   * Overrides the default Executor used to deserialize responses of asynchronous requests. By default,
+   * responses are deserialized on the OkHttp dispatcher thread that received them.
+   *
+   * @param newExecutor The Executor to use for response deserialization.
+   */
+  public static void overrideExecutor(Executor newExecutor) {
+    executor = newExecutor;
+  }
+
+  /**
+   * Overrides the default retry policy used by requests without their own. By default, requests are
+   * not retried.
+   *
+   * @param newRetryPolicy The FluentRetryPolicy to use, or null to disable retries.
+   */
+  public static void overrideRetryPolicy(FluentRetryPolicy newRetryPolicy) {
+    retryPolicy = newRetryPolicy;
+  }
+
+  /**
+   * Overrides the default circuit breaker used by requests without their own. By default, there is no
+   * circuit breaker.
+   *
+   * @param newCircuitBreaker The FluentCircuitBreaker to use, or null to disable it.
+   */
+  public static void overrideCircuitBreaker(FluentCircuitBreaker newCircuitBreaker) {
+    circuitBreaker = newCircuitBreaker;
+  }
+
+  /**
+   * Overrides the default rate limiter used by requests without their own. By default, requests are not
+   * rate limited.
+   *
+   * @param newRateLimiter The FluentRateLimiter to use, or null to disable rate limiting.
+   */
+  public static void overrideRateLimiter(FluentRateLimiter newRateLimiter) {
+    rateLimiter = newRateLimiter;
+  }
+
+  /**
+   * Overrides the default concurrency limiter used by requests without their own. By default, the number
+   * of requests in flight is only limited by the OkHttp dispatcher.
+   *
+   * @param newConcurrencyLimiter The FluentConcurrencyLimiter to use, or null to disable it.
+   */
+  public static void overrideConcurrencyLimiter(FluentConcurrencyLimiter newConcurrencyLimiter) {
+    concurrencyLimiter = newConcurrencyLimiter;
+  }
+
+  /**
+   * Overrides the default metrics recorded by requests without their own. By default, no metrics are
+   * recorded. Phase timings are captured with an OkHttp EventListener, installed on the clients once when
+   * they are set, which replaces the EventListener of the client for the calls with metrics or a JFR event.
+   *
+   * @param newMetrics The FluentMetrics to record to, or null to disable metrics.
+   * @see FluentRouteMetrics
+   */
+  public static void overrideMetrics(FluentMetrics newMetrics) {
+    metrics = newMetrics;
+  }
+
+  /**
+   * Overrides the default compression of the request bodies of requests without their own. By default,
+   * request bodies are not compressed.
+   *
+   * @param newCompression The FluentCompression to use, or null to disable compression.
+   * @see FluentCompression
+   */
+  public static void overrideCompression(FluentCompression newCompression) {
+    compression = newCompression;
+  }
+
+  /**
+   * Switches the default OkHttpClient and the asynchronous response Executor to virtual threads, allowing
+   * up to 10000 asynchronous calls in flight, to any host.
+   *
+   * @throws UnsupportedOperationException If virtual threads are not supported by the running Java version.
+   * @see #useVirtualThreads(int, int)
+   */
+  public static void useVirtualThreads() {
+    useVirtualThreads(VIRTUAL_MAX_REQUESTS, VIRTUAL_MAX_REQUESTS_PER_HOST);
+  }
+
+  /**
+   * <p>Switches the default OkHttpClient and the asynchronous response Executor to virtual threads. The
+   * OkHttp dispatcher of the current default client is replaced with one that runs each call on a new
+   * virtual thread, with the specified request limits, and responses are deserialized on virtual threads
+   * too. The limits of the OkHttp dispatcher, 64 calls and 5 per host by default, are the ones that queue
+   * asynchronous calls, so they are raised along with the switch.</p>
+   *
+   * <p>The replaced dispatcher is left running, since requests built with the previous client, and the
+   * clients derived from it, still send their asynchronous calls through it. Its idle threads end on
+   * their own once they are no longer used.</p>
+   *
+   * <p>Synchronous calls keep running on the calling thread, so to fan out blocking calls, issue them
+   * from virtual threads. Overriding the client or executor afterwards replaces the virtual thread ones.</p>
+   *
+   * @param maxRequests        The maximum number of asynchronous calls in flight.
+   * @param maxRequestsPerHost The maximum number of asynchronous calls in flight to a single host.
+   * @throws UnsupportedOperationException If virtual threads are not supported by the running Java version.
+   * @see FluentVirtualThreads
+   */
+  public static void useVirtualThreads(int maxRequests, int maxRequestsPerHost) {
+    if (maxRequests < 1 || maxRequestsPerHost < 1) {
+      throw new IllegalArgumentException("Request limits must be positive: " + maxRequests + ", "
+          + maxRequestsPerHost);
+    }
+
+    ExecutorService virtualExecutor = FluentVirtualThreads.newExecutor();
+    Dispatcher dispatcher = new Dispatcher(virtualExecutor);
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+    client = client.newBuilder()
+        .dispatcher(dispatcher)
+        .build();
+    executor = virtualExecutor;
+  }
+
+  /**
+   * Gets the compiled template for the specified URL, compiling and caching it on first use. Once the
+   * cache is full, the templates that were not used recently are evicted.
+   *
+   * @param url The raw URL template.
+   * @return The compiled FluentUrlTemplate.
+   * @see FluentTemplateCache
+   */
+  private static FluentUrlTemplate template(String url) {
+    return templates.get(url);
   }
 
   /**
@@ -177,10 +377,24 @@ public class FluentRequest {
     private final Class<T> responseType;
     private final TypeReference<T> responseReference;
 
-    private final List<FluentPair<String, String>> headers;
+    private Headers.Builder headers;
     private final Map<String, Object> urlVariables;
     private final Map<String, Object> queryParameters;
     private RequestBody body;
+    private Executor executor;
+    private FluentCache cache;
+    private String[] cacheHeaders = new String[0];
+    private String[] coalesceHeaders;
+    private ObjectReader reader;
+    private FluentCodec codec;
+    private FluentCodecs codecs;
+    private FluentRetryPolicy retryPolicy;
+    private FluentHedgePolicy hedgePolicy;
+    private FluentCircuitBreaker circuitBreaker;
+    private FluentRateLimiter rateLimiter;
+    private FluentConcurrencyLimiter concurrencyLimiter;
+    private FluentMetrics metrics;
+    private FluentCompression compression;
 
     /**
      * Constructs a new Builder instance with the specified URL, response type, and OkHttpClient.
@@ -190,7 +404,7 @@ public class FluentRequest {
      * @param client       The OkHttpClient to use for this specific request.
      */
     public Builder(String url, Class<T> responseType, OkHttpClient client) {
-      this.client = client;
+      this.client = FluentCallTimer.instrument(client);
       this.url = url;
 
       this.responseType = responseType;
@@ -198,7 +412,6 @@ public class FluentRequest {
 
       this.urlVariables = new HashMap<>();
       this.queryParameters = new HashMap<>();
-      this.headers = new ArrayList<>();
     }
 
     /**
@@ -209,7 +422,7 @@ public class FluentRequest {
      * @param client       The OkHttpClient to use for this specific request.
      */
     public Builder(String url, TypeReference<T> responseRef, OkHttpClient client) {
-      this.client = client;
+      this.client = FluentCallTimer.instrument(client);
       this.url = url;
 
       this.responseType = null;
@@ -217,30 +430,65 @@ public class FluentRequest {
 
       this.urlVariables = new HashMap<>();
       this.queryParameters = new HashMap<>();
-      this.headers = new ArrayList<>();
     }
 
     /**
-     * Sets the request body for the HTTP request.
+     * Constructs a frozen copy of the specified Builder with its response reader resolved.
+     *
+     * @param source The Builder to copy.
+     */
+    private Builder(Builder<T> source) {
+      this.client = source.client;
+      this.url = source.url;
+
+      this.responseType = source.responseType;
+      this.responseReference = source.responseReference;
+
+      this.urlVariables = new HashMap<>(source.urlVariables);
+      this.queryParameters = new HashMap<>(source.queryParameters);
+      this.headers = Objects.nonNull(source.headers) ? source.headers.build().newBuilder() : null;
+
+      this.body = source.body;
+      this.executor = source.executor;
+      this.cache = source.cache;
+      this.cacheHeaders = source.cacheHeaders;
+      this.coalesceHeaders = source.coalesceHeaders;
+      this.retryPolicy = source.retryPolicy;
+      this.hedgePolicy = source.hedgePolicy;
+      this.circuitBreaker = source.circuitBreaker;
+      this.rateLimiter = source.rateLimiter;
+      this.concurrencyLimiter = source.concurrencyLimiter;
+      this.metrics = source.metrics;
+      this.compression = source.compression;
+      this.codec = source.codec;
+      this.codecs = source.codecs;
+      this.reader = source.resolveReader();
+    }
+
+    /**
+     * Sets the request body for the HTTP request. The body object is serialized with the codec of the
+     * request, or the first registered codec that writes it, JSON by default, directly into the request
+     * stream when the request is sent.
      *
      * @param body The request body object.
      * @return The Builder instance for method chaining.
-     * @throws FluentMappingException If there is an issue with mapping the body object to JSON.
+     * @see FluentCodecs
      */
-    public Builder<T> body(Object body) throws FluentMappingException {
-      this.body = RequestBody.create(getBodyAsString(body), MediaType.get("application/json"));
+    public Builder<T> body(Object body) {
+      this.body = encode(body);
       return this;
     }
 
     /**
-     * Sets the request body for the HTTP request using key-value pairs.
+     * Sets the request body for the HTTP request using key-value pairs. The map is serialized with the
+     * codec of the request, JSON by default, directly into the request stream when the request is sent.
      *
      * @param body The map representing the request body.
      * @return The Builder instance for method chaining.
-     * @throws FluentMappingException If there is an issue with mapping the body map to JSON.
+     * @see FluentCodecs
      */
-    public Builder<T> body(Map<String, String> body) throws FluentMappingException {
-      this.body = RequestBody.create(getBodyAsString(body), MediaType.get("application/json"));
+    public Builder<T> body(Map<String, String> body) {
+      this.body = encode(body);
       return this;
     }
 
@@ -319,20 +567,27 @@ public class FluentRequest {
      * @return The Builder instance for method chaining.
      */
     public Builder<T> header(String name, String value) {
-      this.headers.add(FluentPair.of(name, value));
+      headerBuilder().add(name, value);
       return this;
     }
 
     public Builder<T> headers(Map<String, String> headers) {
-      for (String name : headers.keySet()) {
-        this.headers.add(FluentPair.of(name, headers.get(name)));
+      Headers.Builder builder = headerBuilder();
+
+      for (Map.Entry<String, String> header : headers.entrySet()) {
+        builder.add(header.getKey(), header.getValue());
       }
 
       return this;
     }
 
     public Builder<T> headers(List<FluentPair<String, String>> headers) {
-      this.headers.addAll(headers);
+      Headers.Builder builder = headerBuilder();
+
+      for (FluentPair<String, String> header : headers) {
+        builder.add(header.getKey(), header.getValue());
+      }
+
       return this;
     }
 
@@ -343,7 +598,7 @@ public class FluentRequest {
      * @return The Builder instance for method chaining.
      */
     public Builder<T> bearer(String token) {
-      this.headers.add(FluentPair.of("Authorization", "Bearer " + token));
+      headerBuilder().add("Authorization", "Bearer " + token);
       return this;
     }
 
@@ -355,7 +610,201 @@ public class FluentRequest {
      * @return The Builder instance for method chaining.
      */
     public Builder<T> basic(String name, String password) {
-      this.headers.add(FluentPair.of("Authorization", Credentials.basic(name, password)));
+      headerBuilder().add("Authorization", Credentials.basic(name, password));
+      return this;
+    }
+
+    /**
+     * Sets the Executor used to deserialize the response of asynchronous requests made by this builder,
+     * overriding the default set with {@link FluentRequest#overrideExecutor(Executor)}.
+     *
+     * @param executor The Executor to use for response deserialization.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder<T> executor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Enables caching of GET responses in the specified cache. Responses are cached by method, final URL,
+     * response type, the value of the {@code Authorization} header if there is one, and the values of the
+     * specified request headers. Requests with different credentials therefore never share an entry.
+     *
+     * @param cache   The cache to store responses in.
+     * @param headers The names of the request headers that the response depends on, like Accept.
+     * @return The Builder instance for method chaining.
+     * @see FluentCache
+     */
+    public Builder<T> cache(FluentCache cache, String... headers) {
+      this.cache = cache;
+      this.cacheHeaders = headers;
+      return this;
+    }
+
+    /**
+     * Sets the retry policy for this request, overriding the default set with
+     * {@link FluentRequest#overrideRetryPolicy(FluentRetryPolicy)}.
+     *
+     * @param retryPolicy The retry policy to use.
+     * @return The Builder instance for method chaining.
+     * @see FluentRetryPolicy
+     */
+    public Builder<T> retry(FluentRetryPolicy retryPolicy) {
+      this.retryPolicy = retryPolicy;
+      return this;
+    }
+
+    /**
+     * Enables hedging for this request. If a request with a safe method, like GET, has not completed after
+     * the delay of the policy, a duplicate is sent, the first successful response is used and the other call
+     * is cancelled. Synchronous hedged requests wait for the calls running on the OkHttp dispatcher. The
+     * duplicate shares the attempts of the retry policy with the first call, so hedging does not multiply
+     * retries, and the streaming terminals {@link #lines(Class)} and {@link #stream(Class)} are never hedged.
+     *
+     * @param hedgePolicy The hedge policy to use.
+     * @return The Builder instance for method chaining.
+     * @see FluentHedgePolicy
+     */
+    public Builder<T> hedge(FluentHedgePolicy hedgePolicy) {
+      this.hedgePolicy = hedgePolicy;
+      return this;
+    }
+
+    /**
+     * Sets the circuit breaker for this request, overriding the default set with
+     * {@link FluentRequest#overrideCircuitBreaker(FluentCircuitBreaker)}. While the circuit of the host is
+     * open, the request fails fast with a {@link FluentCircuitOpenException}.
+     *
+     * @param circuitBreaker The circuit breaker to use.
+     * @return The Builder instance for method chaining.
+     * @see FluentCircuitBreaker
+     */
+    public Builder<T> circuitBreaker(FluentCircuitBreaker circuitBreaker) {
+      this.circuitBreaker = circuitBreaker;
+      return this;
+    }
+
+    /**
+     * Sets the rate limiter for this request, overriding the default set with
+     * {@link FluentRequest#overrideRateLimiter(FluentRateLimiter)}. Synchronous requests block until the
+     * limiter allows them, asynchronous requests are sent once it does.
+     *
+     * @param rateLimiter The rate limiter to use.
+     * @return The Builder instance for method chaining.
+     * @see FluentRateLimiter
+     */
+    public Builder<T> rateLimiter(FluentRateLimiter rateLimiter) {
+      this.rateLimiter = rateLimiter;
+      return this;
+    }
+
+    /**
+     * Sets the concurrency limiter for this request, overriding the default set with
+     * {@link FluentRequest#overrideConcurrencyLimiter(FluentConcurrencyLimiter)}. If the limit of the host
+     * is reached, the request fails fast with a {@link FluentConcurrencyLimitException}.
+     *
+     * @param concurrencyLimiter The concurrency limiter to use.
+     * @return The Builder instance for method chaining.
+     * @see FluentConcurrencyLimiter
+     */
+    public Builder<T> concurrencyLimiter(FluentConcurrencyLimiter concurrencyLimiter) {
+      this.concurrencyLimiter = concurrencyLimiter;
+      return this;
+    }
+
+    /**
+     * Sets the metrics this request records to, overriding the default set with
+     * {@link FluentRequest#overrideMetrics(FluentMetrics)}.
+     *
+     * @param metrics The metrics to record to.
+     * @return The Builder instance for method chaining.
+     * @see FluentMetrics
+     */
+    public Builder<T> metrics(FluentMetrics metrics) {
+      this.metrics = metrics;
+      return this;
+    }
+
+    /**
+     * Sets the compression of the request body, overriding the default set with
+     * {@link FluentRequest#overrideCompression(FluentCompression)}.
+     *
+     * @param compression The compression to use.
+     * @return The Builder instance for method chaining.
+     * @see FluentCompression
+     */
+    public Builder<T> compress(FluentCompression compression) {
+      this.compression = compression;
+      return this;
+    }
+
+    /**
+     * <p>Sets the codec of the request, to use a format other than JSON, like Smile or CBOR. The body set
+     * with {@link #body(Object)} is serialized with the codec, and the {@code Accept} header asks for its
+     * media type, with JSON as a less preferred fallback. The response body is deserialized with the codec
+     * if its {@code Content-Type} matches it or is missing, and with the codecs of the request otherwise,
+     * so servers that do not support the format keep working.</p>
+     *
+     * <p>Example:</p>
+     * <pre>{@code FluentRequest.request("https://internal.example.com/orders", Order[].class)
+     *     .codec(new FluentSmileCodec())
+     *     .get();}</pre>
+     *
+     * @param codec The codec to use.
+     * @return The Builder instance for method chaining.
+     * @throws IllegalArgumentException If the codec is null.
+     * @see FluentSmileCodec
+     * @see FluentCborCodec
+     */
+    public Builder<T> codec(FluentCodec codec) {
+      if (Objects.isNull(codec)) {
+        throw new IllegalArgumentException("Codec must not be null");
+      }
+
+      MediaType mediaType = codec.getMediaType();
+
+      this.codec = codec;
+      headerBuilder().set("Accept", codec.supports(FluentCodecs.JSON)
+          ? mediaType.toString()
+          : mediaType + ", " + FluentCodecs.JSON + ";q=0.5");
+      reencode();
+
+      return this;
+    }
+
+    /**
+     * Sets the codecs of this request, overriding the default ones set with
+     * {@link FluentRequest#overrideCodecs(FluentCodecs)}. The codec set with {@link #codec(FluentCodec)}
+     * takes precedence over them.
+     *
+     * @param codecs The codecs to use.
+     * @return The Builder instance for method chaining.
+     * @see FluentCodecs
+     */
+    public Builder<T> codecs(FluentCodecs codecs) {
+      this.codecs = codecs;
+      reencode();
+
+      return this;
+    }
+
+    /**
+     * <p>Enables coalescing of concurrent identical requests. While a request is in flight, identical ones
+     * wait for it and share its response instead of being sent. Requests are identical if they have the
+     * same method, final URL, response type, value of the {@code Authorization} header if there is one,
+     * and values of the specified request headers. Requests with different credentials are therefore
+     * never coalesced.</p>
+     *
+     * <p>Only safe methods (GET, HEAD, OPTIONS and TRACE) are coalesced. The body of the response is shared
+     * between the coalesced requests and must not be modified. Cancelling an asynchronous coalesced
+     * request does not cancel the shared call.</p>
+     *
+     * @param headers The names of the other request headers that the response depends on, like Accept.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder<T> coalesce(String... headers) {
+      this.coalesceHeaders = headers;
       return this;
     }
 
@@ -379,6 +828,32 @@ public class FluentRequest {
       return new FluentFormBody<>(this);
     }
 
+    /**
+     * <p>Prepares a reusable request from the current configuration of the builder. The URL template with
+     * the variables and parameters set so far, the headers and the response reader are resolved once, so
+     * that each call only binds the remaining variables, parameters and body.</p>
+     *
+     * <p>Later changes to the builder do not affect the prepared request.</p>
+     *
+     * <p>Example:</p>
+     * <pre>{@code
+     * PreparedFluentRequest<Order> order = FluentRequest.request("https://example.com/users/{id}/orders/{orderId}", Order.class)
+     *     .bearer(token)
+     *     .prepare();
+     *
+     * order.get(1, 42);
+     * }</pre>
+     *
+     * @return The PreparedFluentRequest.
+     * @see PreparedFluentRequest
+     */
+    public PreparedFluentRequest<T> prepare() {
+      return new PreparedFluentRequest<>(new Builder<>(this),
+          template(url).apply(urlVariables, queryParameters),
+          buildHeaders(),
+          buildBody());
+    }
+
     /**
      * Send the HTTP request synchronously with a specified method.
      *
@@ -399,6 +874,17 @@ public class FluentRequest {
       doSend(method, callback);
     }
 
+    /**
+     * Send the HTTP request asynchronously with a specified method. The response is deserialized on the
+     * configured Executor and cancelling the returned future cancels the underlying call.
+     *
+     * @param method The FluentHttpMethod to execute.
+     * @return A CompletableFuture completed with the FluentResponse.
+     */
+    public CompletableFuture<FluentResponse<T>> executeAsync(FluentHttpMethod method) {
+      return doSendAsync(method);
+    }
+
     /**
      * Sends a GET request synchronously and returns the response.
      *
@@ -417,6 +903,15 @@ public class FluentRequest {
       doSend(FluentHttpMethod.GET, callback);
     }
 
+    /**
+     * Sends a GET request asynchronously and returns a future of the response.
+     *
+     * @return A CompletableFuture completed with the FluentResponse.
+     */
+    public CompletableFuture<FluentResponse<T>> getAsync() {
+      return doSendAsync(FluentHttpMethod.GET);
+    }
+
     /**
      * Sends a POST request synchronously and returns the response.
      *
@@ -435,6 +930,15 @@ public class FluentRequest {
       doSend(FluentHttpMethod.POST, callback);
     }
 
+    /**
+     * Sends a POST request asynchronously and returns a future of the response.
+     *
+     * @return A CompletableFuture completed with the FluentResponse.
+     */
+    public CompletableFuture<FluentResponse<T>> postAsync() {
+      return doSendAsync(FluentHttpMethod.POST);
+    }
+
     /**
      * Sends a PUT request synchronously and returns the response.
      *
@@ -453,6 +957,15 @@ public class FluentRequest {
       doSend(FluentHttpMethod.PUT, callback);
     }
 
+    /**
+     * Sends a PUT request asynchronously and returns a future of the response.
+     *
+     * @return A CompletableFuture completed with the FluentResponse.
+     */
+    public CompletableFuture<FluentResponse<T>> putAsync() {
+      return doSendAsync(FluentHttpMethod.PUT);
+    }
+
     /**
      * Sends a PATCH request synchronously and returns the response.
      *
@@ -471,6 +984,15 @@ public class FluentRequest {
       doSend(FluentHttpMethod.PATCH, callback);
     }
 
+    /**
+     * Sends a PATCH request asynchronously and returns a future of the response.
+     *
+     * @return A CompletableFuture completed with the FluentResponse.
+     */
+    public CompletableFuture<FluentResponse<T>> patchAsync() {
+      return doSendAsync(FluentHttpMethod.PATCH);
+    }
+
     /**
      * Sends a HEAD request synchronously and returns the response.
      *
@@ -489,6 +1011,15 @@ public class FluentRequest {
       doSend(FluentHttpMethod.HEAD, callback);
     }
 
+    /**
+     * Sends a HEAD request asynchronously and returns a future of the response.
+     *
+     * @return A CompletableFuture completed with the FluentResponse.
+     */
+    public CompletableFuture<FluentResponse<T>> headAsync() {
+      return doSendAsync(FluentHttpMethod.HEAD);
+    }
+
     /**
      * Sends an OPTIONS request synchronously and returns the response.
      *
@@ -507,6 +1038,15 @@ public class FluentRequest {
       doSend(FluentHttpMethod.OPTIONS, callback);
     }
 
+    /**
+     * Sends an OPTIONS request asynchronously and returns a future of the response.
+     *
+     * @return A CompletableFuture completed with the FluentResponse.
+     */
+    public CompletableFuture<FluentResponse<T>> optionsAsync() {
+      return doSendAsync(FluentHttpMethod.OPTIONS);
+    }
+
     /**
      * Sends a TRACE request synchronously and returns the response.
      *
@@ -525,6 +1065,15 @@ public class FluentRequest {
       doSend(FluentHttpMethod.TRACE, callback);
     }
 
+    /**
+     * Sends a TRACE request asynchronously and returns a future of the response.
+     *
+     * @return A CompletableFuture completed with the FluentResponse.
+     */
+    public CompletableFuture<FluentResponse<T>> traceAsync() {
+      return doSendAsync(FluentHttpMethod.TRACE);
+    }
+
     /**
      * Sends a DELETE request synchronously.
      */
@@ -542,102 +1091,1123 @@ public class FluentRequest {
     }
 
     /**
-     * Sends the HTTP request asynchronously with the specified method and callback.
+     * Sends a DELETE request asynchronously and returns a future of the response.
      *
-     * @param method   The HTTP method for the request.
-     * @param callback The callback to handle the asynchronous response.
+     * @return A CompletableFuture completed with the FluentResponse.
      */
-    private void doSend(FluentHttpMethod method, Callback callback) {
-      client.newCall(buildRequest(method)).enqueue(callback);
+    public CompletableFuture<FluentResponse<T>> deleteAsync() {
+      return doSendAsync(FluentHttpMethod.DELETE);
     }
 
     /**
-     * Sends the HTTP request synchronously with the specified method and returns the response.
+     * Sends a GET request synchronously and streams the newline-delimited JSON records of the response.
      *
-     * @param method The HTTP method for the request.
-     * @return The FluentResponse containing the response body and HTTP response details.
+     * @param type The class of the records.
+     * @param <E>  The type of the records.
+     * @return The FluentStream of the records, to be closed once done with it.
+     * @see #lines(FluentHttpMethod, Class)
      */
-    private FluentResponse<T> doSend(FluentHttpMethod method) throws FluentIOException {
+    public <E> FluentStream<E> lines(Class<E> type) {
+      return lines(FluentHttpMethod.GET, type);
+    }
+
+    /**
+     * <p>Sends the HTTP request synchronously with a specified method and streams the newline-delimited JSON
+     * records (NDJSON, JSON lines) of the response. Records are deserialized one at a time while the
+     * response stream is read, so memory use does not depend on the size of the response. The
+     * {@code Accept} header asks for {@code application/x-ndjson} unless one is set.</p>
+     *
+     * <p>The request is sent as usual, with retries and limits, but it is never hedged and the response is
+     * neither cached nor coalesced. Once the response headers are received, the records are read on the calling
+     * thread.</p>
+     *
+     * <p>Example:</p>
+     * <pre>{@code try (Stream<Event> events = FluentRequest.request("https://api.example.com/export")
+     *     .lines(Event.class)
+     *     .stream()) {
+     *   events.forEach(this::process);
+     * }}</pre>
+     *
+     * @param method The HTTP method to be used for the request.
+     * @param type   The class of the records.
+     * @param <E>    The type of the records.
+     * @return The FluentStream of the records, to be closed once done with it.
+     * @throws FluentIOException If the request fails.
+     * @see FluentStream
+     */
+    public <E> FluentStream<E> lines(FluentHttpMethod method, Class<E> type) {
       Request request = buildRequest(method);
+      CallHolder holder = new CallHolder();
+      Request.Builder builder = request.newBuilder().tag(CallHolder.class, holder);
 
-      try (Response response = client.newCall(request).execute()) {
-        return new FluentResponse<>(deserializeAsJson(response), response);
+      if (Objects.isNull(request.header("Accept"))) {
+        builder.header("Accept", "application/x-ndjson");
+      }
+
+      try {
+        Response response = executeWithRetries(method, builder.build());
+        return FluentStream.lines(response, resolveCodecs().getJson().getMappers().reader(type), holder.call);
       } catch (IOException e) {
         throw new FluentIOException(e);
       }
     }
 
     /**
-     * Builds the OkHttp Request object based on the configured parameters.
+     * Sends a GET request synchronously and streams the elements of the top-level JSON array of the response.
      *
-     * @param method The HTTP method for the request.
-     * @return The constructed OkHttp Request object.
+     * @param type The class of the elements.
+     * @param <E>  The type of the elements.
+     * @return The FluentStream of the elements, to be closed once done with it.
+     * @see #stream(FluentHttpMethod, Class)
      */
-    private Request buildRequest(FluentHttpMethod method) {
-      return new Request.Builder()
-          .url(buildUrl(url, urlVariables, queryParameters))
-          .headers(buildHeaders())
-          .method(method.name(), buildBody())
-          .build();
+    public <E> FluentStream<E> stream(Class<E> type) {
+      return stream(FluentHttpMethod.GET, type);
     }
 
     /**
-     * Retrieves the JSON body from the provided response object. 
+     * <p>Sends the HTTP request synchronously with a specified method and streams the elements of the
+     * top-level JSON array of the response. Elements are deserialized one at a time while the response
+     * stream is read, so the whole array is never held in memory. Closing the stream before the end of the
+     * array cancels the call, which closes the connection instead of reading the remaining elements.</p>
      *
-     * @param response the response object from which to retrieve the JSON body
-     * @return the deserialized JSON body as an object of type T
+     * <p>The request is sent as usual, with retries and limits, but it is never hedged and the response is
+     * neither cached nor coalesced. Once the response headers are received, the elements are read on the calling
+     * thread.</p>
+     *
+     * <p>Example:</p>
+     * <pre>{@code try (FluentStream<Item> items = FluentRequest.request("https://api.example.com/items")
+     *     .stream(Item.class)) {
+     *   while (items.hasNext()) {
+     *     Item item = items.next();
+     *
+     *     if (item.isLast()) {
+     *       break;
+     *     }
+     *   }
+     * }}</pre>
+     *
+     * @param method The HTTP method to be used for the request.
+     * @param type   The class of the elements.
+     * @param <E>    The type of the elements.
+     * @return The FluentStream of the elements, to be closed once done with it.
+     * @throws FluentIOException If the request fails or the response is not a JSON array.
+     * @see FluentStream
+     */
+    public <E> FluentStream<E> stream(FluentHttpMethod method, Class<E> type) {
+      CallHolder holder = new CallHolder();
+      Request request = buildRequest(method).newBuilder().tag(CallHolder.class, holder).build();
+
+      try {
+        Response response = executeWithRetries(method, request);
+        return FluentStream.array(response, resolveCodecs().getJson().getMappers().reader(type), holder.call);
+      } catch (IOException e) {
+        throw new FluentIOException(e);
+      }
+    }
+
+    /**
+     * Sends the HTTP request asynchronously with the specified method and callback, through the rate
+     * limiter, concurrency limiter, circuit breaker and retry policy like the other asynchronous requests.
+     * The callback receives the call of the final attempt, and requests rejected before any attempt is
+     * sent fail with an IOException caused by the rejection.
+     *
+     * @param method   The HTTP method for the request.
+     * @param callback The callback to handle the asynchronous response.
+     */
+    private void doSend(FluentHttpMethod method, Callback callback) {
+      Request request = buildRequest(method);
+      AtomicReference<Call> current = new AtomicReference<>();
+
+      executeAsync(method, request, current).whenComplete((response, e) -> {
+        Call call = Objects.nonNull(current.get()) ? current.get() : client.newCall(request);
+
+        if (Objects.isNull(e)) {
+          try {
+            callback.onResponse(call, response);
+          } catch (IOException ignored) {
+            // Like OkHttp, a callback failing on the response is not signalled again through onFailure.
+            response.close();
+          }
+        } else {
+          callback.onFailure(call, e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e));
+        }
+      });
+    }
+
+    /**
+     * Sends the HTTP request asynchronously with the specified method. The response is deserialized and
+     * closed on the configured Executor, and cancelling the future cancels the call.
+     *
+     * @param method The HTTP method for the request.
+     * @return A CompletableFuture completed with the FluentResponse or a FluentIOException.
+     */
+    private CompletableFuture<FluentResponse<T>> doSendAsync(FluentHttpMethod method) {
+      return sendAsync(method, buildRequest(method));
+    }
+
+    /**
+     * Sends the built HTTP request asynchronously, coalescing it with identical requests in flight if
+     * enabled.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request to send.
+     * @return A CompletableFuture completed with the FluentResponse or a FluentIOException.
+     */
+    CompletableFuture<FluentResponse<T>> sendAsync(FluentHttpMethod method, Request request) {
+      if (Objects.isNull(coalesceHeaders) || !method.isSafe()) {
+        return doSendAsync(method, request);
+      }
+
+      return flights.executeAsync(requestKey(method, request, coalesceHeaders), () -> doSendAsync(method, request));
+    }
+
+    /**
+     * Sends the built HTTP request asynchronously, serving it from the cache when possible.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request to send.
+     * @return A CompletableFuture completed with the FluentResponse or a FluentIOException.
+     */
+    private CompletableFuture<FluentResponse<T>> doSendAsync(FluentHttpMethod method, Request request) {
+      CompletableFuture<FluentResponse<T>> future = new CompletableFuture<>();
+
+      String cacheKey = cacheKey(method, request);
+      FluentCache.Entry cached = Objects.nonNull(cacheKey) ? cache.get(cacheKey) : null;
+
+      if (Objects.nonNull(cached) && cached.isFresh()) {
+        future.complete(cached.toFluentResponse());
+        return future;
+      }
+
+      CompletableFuture<Response> call = dispatchAsync(method, Objects.nonNull(cached) ? cached.conditional(request) : request);
+
+      future.whenComplete((response, e) -> {
+        if (future.isCancelled()) {
+          call.cancel(true);
+        }
+      });
+
+      call.whenComplete((response, e) -> {
+        if (Objects.nonNull(e)) {
+          future.completeExceptionally(e instanceof IOException ? new FluentIOException(e) : e);
+          return;
+        }
+
+        try {
+          resolveExecutor().execute(() -> complete(future, response, cacheKey, cached));
+        } catch (RejectedExecutionException ex) {
+          response.close();
+          future.completeExceptionally(ex);
+        }
+      });
+
+      return future;
+    }
+
+    /**
+     * Executes the call asynchronously, hedging it if a hedge policy is set and the method is safe.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request to send.
+     * @return A CompletableFuture completed with the final response or I/O error.
+     */
+    private CompletableFuture<Response> dispatchAsync(FluentHttpMethod method, Request request) {
+      return isHedged(method, request) ? hedgeAsync(method, request) : executeAsync(method, request);
+    }
+
+    /**
+     * Checks if the request is hedged, which requires a hedge policy and a safe method, so that only reads
+     * are ever sent twice, and a body that can be written more than once.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request to send.
+     * @return true if the request is hedged, false otherwise.
+     */
+    private boolean isHedged(FluentHttpMethod method, Request request) {
+      return Objects.nonNull(hedgePolicy) && method.isSafe()
+          && (Objects.isNull(request.body()) || !request.body().isOneShot());
+    }
+
+    /**
+     * Executes the call asynchronously and sends a duplicate if it has not completed after the hedge delay.
+     * The first successful response wins and the other call is cancelled. If neither succeeds, the outcome
+     * of the one that completes last is used. Both calls draw their attempts from one retry budget: the
+     * duplicate counts as an attempt of the retry policy, and a retry of either call counts for both.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request to send.
+     * @return A CompletableFuture completed with the final response or I/O error.
+     */
+    private CompletableFuture<Response> hedgeAsync(FluentHttpMethod method, Request request) {
+      CompletableFuture<Response> result = new CompletableFuture<>();
+      List<CompletableFuture<Response>> attempts = new ArrayList<>(2);
+      FluentRetryPolicy policy = resolveRetryPolicy(method, request);
+      AtomicInteger sent = new AtomicInteger();
+
+      if (Objects.nonNull(policy)) {
+        policy.recordRequest();
+      }
+
+      result.whenComplete((response, e) -> {
+        List<CompletableFuture<Response>> losers;
+
+        synchronized (attempts) {
+          losers = new ArrayList<>(attempts);
+        }
+
+        losers.forEach(attempt -> attempt.cancel(true));
+      });
+
+      Runnable send = () -> {
+        long start = System.nanoTime();
+        CompletableFuture<Response> attempt;
+
+        synchronized (attempts) {
+          if (result.isDone()) {
+            return;
+          }
+
+          attempt = executeAsync(request, policy, sent, new AtomicReference<>());
+          attempts.add(attempt);
+        }
+
+        attempt.whenComplete((response, e) -> {
+          synchronized (attempts) {
+            attempts.remove(attempt);
+            boolean success = Objects.nonNull(response) && response.isSuccessful();
+
+            if (!success && !attempts.isEmpty()) {
+              if (Objects.nonNull(response)) {
+                response.close();
+              }
+
+              return;
+            }
+          }
+
+          boolean completed = Objects.nonNull(e) ? result.completeExceptionally(e) : result.complete(response);
+
+          if (completed && Objects.nonNull(response) && response.isSuccessful()) {
+            hedgePolicy.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+          } else if (!completed && Objects.nonNull(response)) {
+            response.close();
+          }
+        });
+      };
+
+      send.run();
+      ScheduledFuture<?> hedge = FluentScheduler.schedule(send, hedgePolicy.getDelayMillis(), TimeUnit.MILLISECONDS);
+      result.whenComplete((response, e) -> hedge.cancel(false));
+
+      return result;
+    }
+
+    /**
+     * Executes the call asynchronously, sending it again after a backoff as allowed by the retry policy.
+     * Cancelling the returned future cancels the current attempt and any pending retry.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request to send.
+     * @return A CompletableFuture completed with the final response or I/O error.
+     */
+    private CompletableFuture<Response> executeAsync(FluentHttpMethod method, Request request) {
+      return executeAsync(method, request, new AtomicReference<>());
+    }
+
+    /**
+     * Executes the call asynchronously, sending it again after a backoff as allowed by the retry policy,
+     * and keeps the call of the current attempt in the specified reference.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request to send.
+     * @param current The reference to the call of the current attempt.
+     * @return A CompletableFuture completed with the final response or I/O error.
+     */
+    private CompletableFuture<Response> executeAsync(FluentHttpMethod method, Request request,
+                                                     AtomicReference<Call> current) {
+      FluentRetryPolicy policy = resolveRetryPolicy(method, request);
+
+      if (Objects.nonNull(policy)) {
+        policy.recordRequest();
+      }
+
+      return executeAsync(request, policy, new AtomicInteger(), current);
+    }
+
+    /**
+     * Executes the call asynchronously with the specified retry policy, numbering its attempts with the
+     * specified counter, which hedged calls share so that their attempts add up against one retry policy.
+     *
+     * @param request The request to send.
+     * @param policy  The retry policy, or null if the request is not retried.
+     * @param sent    The number of attempts sent so far, shared by the hedged calls of a request.
+     * @param current The reference to the call of the current attempt.
+     * @return A CompletableFuture completed with the final response or I/O error.
+     */
+    private CompletableFuture<Response> executeAsync(Request request, FluentRetryPolicy policy, AtomicInteger sent,
+                                                     AtomicReference<Call> current) {
+      CompletableFuture<Response> future = new CompletableFuture<>();
+
+      future.whenComplete((response, e) -> {
+        Call call = current.get();
+
+        if (future.isCancelled() && Objects.nonNull(call)) {
+          call.cancel();
+        }
+      });
+
+      enqueue(request, policy, sent.incrementAndGet(), sent, current, future);
+
+      return future;
+    }
+
+    /**
+     * Enqueues an attempt of the call, delaying it until the rate limiter allows it.
+     *
+     * @param request The request to send.
+     * @param policy  The retry policy, or null if the request is not retried.
+     * @param attempt The number of the attempt, starting at 1.
+     * @param sent    The number of attempts sent so far, shared by the hedged calls of a request.
+     * @param current The reference to the call of the current attempt.
+     * @param future  The future to complete with the final response or I/O error.
+     */
+    private void enqueue(Request request, FluentRetryPolicy policy, int attempt, AtomicInteger sent,
+                         AtomicReference<Call> current, CompletableFuture<Response> future) {
+      FluentRateLimiter limiter = resolveRateLimiter();
+      long wait = Objects.nonNull(limiter) && !future.isDone() ? limiter.reserve(url, request.url()) : 0;
+
+      if (wait > 0) {
+        FluentScheduler.schedule(() -> enqueueCall(request, policy, attempt, sent, current, future),
+            wait, TimeUnit.NANOSECONDS);
+      } else {
+        enqueueCall(request, policy, attempt, sent, current, future);
+      }
+    }
+
+    /**
+     * Enqueues an attempt of the call through the circuit breaker if there is one, scheduling the next
+     * one if it fails in a retryable way.
+     *
+     * @param request The request to send.
+     * @param policy  The retry policy, or null if the request is not retried.
+     * @param attempt The number of the attempt, starting at 1.
+     * @param sent    The number of attempts sent so far, shared by the hedged calls of a request.
+     * @param current The reference to the call of the current attempt.
+     * @param future  The future to complete with the final response or I/O error.
+     */
+    private void enqueueCall(Request request, FluentRetryPolicy policy, int attempt, AtomicInteger sent,
+                             AtomicReference<Call> current, CompletableFuture<Response> future) {
+      if (future.isDone()) {
+        return;
+      }
+
+      FluentRateLimiter limiter = resolveRateLimiter();
+      FluentConcurrencyLimiter.Limit limit;
+      FluentCircuitBreaker.Circuit circuit;
+
+      try {
+        limit = acquireLimit(request);
+        circuit = acquireCircuit(request, limit);
+      } catch (FluentIOException e) {
+        future.completeExceptionally(e);
+        return;
+      }
+
+      long start = System.nanoTime();
+      Call call = newCall(request, attempt);
+      current.set(call);
+
+      if (future.isCancelled()) {
+        call.cancel();
+      }
+
+      call.enqueue(new Callback() {
+        @Override
+        public void onFailure(Call call, IOException e) {
+          if (call.isCanceled()) {
+            release(limit, circuit);
+          } else {
+            record(limit, circuit, start, true, true);
+          }
+
+          if (!call.isCanceled() && Objects.nonNull(policy) && policy.shouldRetry(sent.get(), e)) {
+            int next = sent.incrementAndGet();
+            FluentScheduler.schedule(() -> enqueue(request, policy, next, sent, current, future),
+                policy.backoffMillis(attempt), TimeUnit.MILLISECONDS);
+          } else {
+            future.completeExceptionally(e);
+          }
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+          record(limit, circuit, start, false, response.code() >= 500);
+
+          if (Objects.nonNull(limiter)) {
+            limiter.record(url, request.url(), response);
+          }
+
+          if (Objects.nonNull(policy) && policy.shouldRetry(sent.get(), response.code())) {
+            int next = sent.incrementAndGet();
+            response.close();
+            FluentScheduler.schedule(() -> enqueue(request, policy, next, sent, current, future),
+                policy.backoffMillis(attempt), TimeUnit.MILLISECONDS);
+          } else if (!future.complete(response)) {
+            response.close();
+          }
+        }
+      });
+    }
+
+    /**
+     * Deserializes the response and completes the future with it, closing the response afterwards.
+     *
+     * @param future   The future to complete.
+     * @param response The HTTP response.
+     * @param cacheKey The cache key of the request, or null if it is not cached.
+     * @param cached   The cached entry the request revalidates, or null if there is none.
+     */
+    private void complete(CompletableFuture<FluentResponse<T>> future, Response response,
+                          String cacheKey, FluentCache.Entry cached) {
+      try (Response closeable = response) {
+        future.complete(toFluentResponse(closeable, cacheKey, cached));
+      } catch (IOException e) {
+        future.completeExceptionally(new FluentIOException(e));
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+    }
+
+    /**
+     * Resolves the Executor for response deserialization, falling back to the default one.
+     *
+     * @return The Executor to use.
+     */
+    private Executor resolveExecutor() {
+      return Objects.nonNull(this.executor) ? this.executor : FluentRequest.executor;
+    }
+
+    /**
+     * Sends the HTTP request synchronously with the specified method and returns the response.
+     *
+     * @param method The HTTP method for the request.
+     * @return The FluentResponse containing the response body and HTTP response details.
+     */
+    private FluentResponse<T> doSend(FluentHttpMethod method) throws FluentIOException {
+      return send(method, buildRequest(method));
+    }
+
+    /**
+     * Sends the built HTTP request synchronously, coalescing it with identical requests in flight if
+     * enabled.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request to send.
+     * @return The FluentResponse containing the response body and HTTP response details.
+     */
+    FluentResponse<T> send(FluentHttpMethod method, Request request) throws FluentIOException {
+      if (Objects.isNull(coalesceHeaders) || !method.isSafe()) {
+        return doSend(method, request);
+      }
+
+      return flights.execute(requestKey(method, request, coalesceHeaders), () -> doSend(method, request));
+    }
+
+    /**
+     * Sends the built HTTP request synchronously, serving it from the cache when possible.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request to send.
+     * @return The FluentResponse containing the response body and HTTP response details.
+     */
+    private FluentResponse<T> doSend(FluentHttpMethod method, Request request) throws FluentIOException {
+      String cacheKey = cacheKey(method, request);
+      FluentCache.Entry cached = Objects.nonNull(cacheKey) ? cache.get(cacheKey) : null;
+
+      if (Objects.nonNull(cached) && cached.isFresh()) {
+        return cached.toFluentResponse();
+      }
+
+      if (Objects.nonNull(cached)) {
+        request = cached.conditional(request);
+      }
+
+      try (Response response = execute(method, request)) {
+        return toFluentResponse(response, cacheKey, cached);
+      } catch (IOException e) {
+        throw new FluentIOException(e);
+      }
+    }
+
+    /**
+     * Executes the call synchronously, hedging it if a hedge policy is set and the method is safe.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request to send.
+     * @return The final response.
+     * @throws IOException if the final attempt fails or the thread is interrupted while waiting
+     */
+    private Response execute(FluentHttpMethod method, Request request) throws IOException {
+      return isHedged(method, request) ? await(hedgeAsync(method, request)) : executeWithRetries(method, request);
+    }
+
+    /**
+     * Executes the call synchronously without hedging, sending it again after a backoff as allowed by the
+     * retry policy.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request to send.
+     * @return The final response.
+     * @throws IOException if the final attempt fails or the thread is interrupted during a backoff
+     */
+    private Response executeWithRetries(FluentHttpMethod method, Request request) throws IOException {
+      FluentRetryPolicy policy = resolveRetryPolicy(method, request);
+
+      if (Objects.isNull(policy)) {
+        return guardedCall(request, 1);
+      }
+
+      policy.recordRequest();
+
+      for (int attempt = 1; ; attempt++) {
+        try {
+          Response response = guardedCall(request, attempt);
+
+          if (!policy.shouldRetry(attempt, response.code())) {
+            return response;
+          }
+
+          response.close();
+        } catch (IOException e) {
+          if (!policy.shouldRetry(attempt, e)) {
+            throw e;
+          }
+        }
+
+        backoff(policy.backoffMillis(attempt));
+      }
+    }
+
+    /**
+     * Sends a single attempt of the call synchronously, once the rate limiter allows it and through the
+     * concurrency limiter and circuit breaker if there are.
+     *
+     * @param request The request to send.
+     * @param attempt The number of the attempt, starting at 1.
+     * @return The response.
+     * @throws IOException if the call fails or the thread is interrupted while waiting for the rate limiter
+     * @throws FluentConcurrencyLimitException if the concurrency limit of the host is reached
+     * @throws FluentCircuitOpenException if the circuit of the host is open
+     */
+    private Response guardedCall(Request request, int attempt) throws IOException {
+      FluentRateLimiter limiter = resolveRateLimiter();
+
+      if (Objects.isNull(limiter) && Objects.isNull(resolveConcurrencyLimiter())
+          && Objects.isNull(resolveCircuitBreaker())) {
+        return newCall(request, attempt).execute();
+      }
+
+      if (Objects.nonNull(limiter)) {
+        throttle(limiter.reserve(url, request.url()));
+      }
+
+      FluentConcurrencyLimiter.Limit limit = acquireLimit(request);
+      FluentCircuitBreaker.Circuit circuit = acquireCircuit(request, limit);
+      long start = System.nanoTime();
+      boolean dropped = true;
+      boolean failure = true;
+
+      try {
+        Response response = newCall(request, attempt).execute();
+        dropped = false;
+        failure = response.code() >= 500;
+
+        if (Objects.nonNull(limiter)) {
+          limiter.record(url, request.url(), response);
+        }
+
+        return response;
+      } finally {
+        record(limit, circuit, start, dropped, failure);
+      }
+    }
+
+    /**
+     * Creates the call of an attempt, attaching a FluentCallTimer to the request if metrics or a JFR event
+     * are recorded. The client of the builder is instrumented when the builder is created, so nothing is
+     * resolved here. The JFR event starts here, once the rate limiter and the other limits let the attempt
+     * through.
+     *
+     * @param request The request to send.
+     * @param attempt The number of the attempt, starting at 1.
+     * @return The call.
+     */
+    private Call newCall(Request request, int attempt) {
+      FluentMetrics metrics = resolveMetrics();
+      Object event = FluentFlightRecorder.beginCall();
+      Call call = Objects.isNull(metrics) && Objects.isNull(event) ? client.newCall(request)
+          : client.newCall(request.newBuilder()
+              .tag(FluentCallTimer.class, new FluentCallTimer(metrics, event, request.method(), url, attempt))
+              .build());
+
+      CallHolder holder = request.tag(CallHolder.class);
+
+      if (Objects.nonNull(holder)) {
+        holder.call = call;
+      }
+
+      return call;
+    }
+
+    /**
+     * Takes a place in flight from the concurrency limiter, if there is one.
+     *
+     * @param request The request to send.
+     * @return The limit of the host, or null if there is no concurrency limiter.
+     * @throws FluentConcurrencyLimitException if the concurrency limit of the host is reached
+     */
+    private FluentConcurrencyLimiter.Limit acquireLimit(Request request) {
+      FluentConcurrencyLimiter limiter = resolveConcurrencyLimiter();
+      return Objects.nonNull(limiter) ? limiter.acquire(request.url()) : null;
+    }
+
+    /**
+     * Acquires a permission from the circuit breaker, if there is one, giving back the place in flight
+     * if the circuit is open.
+     *
+     * @param request The request to send.
+     * @param limit   The limit of the host, or null if there is no concurrency limiter.
+     * @return The circuit of the host, or null if there is no circuit breaker.
+     * @throws FluentCircuitOpenException if the circuit of the host is open
+     */
+    private FluentCircuitBreaker.Circuit acquireCircuit(Request request, FluentConcurrencyLimiter.Limit limit) {
+      FluentCircuitBreaker breaker = resolveCircuitBreaker();
+
+      try {
+        return Objects.nonNull(breaker) ? breaker.acquire(request.url()) : null;
+      } catch (FluentCircuitOpenException e) {
+        release(limit, null);
+        throw e;
+      }
+    }
+
+    /**
+     * Records the outcome of an attempt on the concurrency limit and circuit of its host.
+     *
+     * @param limit   The limit of the host, or null if there is no concurrency limiter.
+     * @param circuit The circuit of the host, or null if there is no circuit breaker.
+     * @param start   The time the attempt started at, from {@link System#nanoTime()}.
+     * @param dropped true if the attempt failed with an I/O error.
+     * @param failure true if the attempt failed with an I/O error or a 5xx response.
+     */
+    private void record(FluentConcurrencyLimiter.Limit limit, FluentCircuitBreaker.Circuit circuit, long start,
+                        boolean dropped, boolean failure) {
+      if (Objects.nonNull(limit)) {
+        limit.record(start, dropped);
+      }
+
+      if (Objects.nonNull(circuit)) {
+        circuit.record(start, failure);
+      }
+    }
+
+    /**
+     * Gives back the place in flight and the circuit permission of a cancelled attempt.
+     *
+     * @param limit   The limit of the host, or null if there is no concurrency limiter.
+     * @param circuit The circuit of the host, or null if there is no circuit breaker.
+     */
+    private void release(FluentConcurrencyLimiter.Limit limit, FluentCircuitBreaker.Circuit circuit) {
+      if (Objects.nonNull(limit)) {
+        limit.release();
+      }
+
+      if (Objects.nonNull(circuit)) {
+        circuit.release();
+      }
+    }
+
+    /**
+     * Waits for the response of an asynchronous call, cancelling it if the thread is interrupted.
+     *
+     * @param call The future of the response.
+     * @return The response.
+     * @throws IOException if the call fails or the thread is interrupted
+     */
+    private Response await(CompletableFuture<Response> call) throws IOException {
+      try {
+        return call.get();
+      } catch (InterruptedException e) {
+        call.cancel(true);
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the response");
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+
+        throw new IOException(e.getCause());
+      }
+    }
+
+    /**
+     * Sleeps for the backoff before the next attempt.
+     *
+     * @param millis The backoff in milliseconds.
+     * @throws InterruptedIOException if the thread is interrupted
+     */
+    private void backoff(long millis) throws InterruptedIOException {
+      try {
+        Thread.sleep(millis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted during retry backoff");
+      }
+    }
+
+    /**
+     * Waits until the rate limiter allows the next attempt.
+     *
+     * @param nanos The time to wait in nanoseconds.
+     * @throws InterruptedIOException if the thread is interrupted
+     */
+    private void throttle(long nanos) throws InterruptedIOException {
+      if (nanos <= 0) {
+        return;
+      }
+
+      try {
+        TimeUnit.NANOSECONDS.sleep(nanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the rate limiter");
+      }
+    }
+
+    /**
+     * Resolves the retry policy for the request, falling back to the default one.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request to send.
+     * @return The retry policy, or null if the request is not retried.
+     */
+    private FluentRetryPolicy resolveRetryPolicy(FluentHttpMethod method, Request request) {
+      FluentRetryPolicy policy = Objects.nonNull(this.retryPolicy) ? this.retryPolicy : FluentRequest.retryPolicy;
+      return Objects.nonNull(policy) && policy.appliesTo(method, request) ? policy : null;
+    }
+
+    /**
+     * Resolves the circuit breaker for the request, falling back to the default one.
+     *
+     * @return The circuit breaker, or null if there is none.
+     */
+    private FluentCircuitBreaker resolveCircuitBreaker() {
+      return Objects.nonNull(this.circuitBreaker) ? this.circuitBreaker : FluentRequest.circuitBreaker;
+    }
+
+    /**
+     * Resolves the rate limiter for the request, falling back to the default one.
+     *
+     * @return The rate limiter, or null if there is none.
+     */
+    private FluentRateLimiter resolveRateLimiter() {
+      return Objects.nonNull(this.rateLimiter) ? this.rateLimiter : FluentRequest.rateLimiter;
+    }
+
+    /**
+     * Resolves the concurrency limiter for the request, falling back to the default one.
+     *
+     * @return The concurrency limiter, or null if there is none.
+     */
+    private FluentConcurrencyLimiter resolveConcurrencyLimiter() {
+      return Objects.nonNull(this.concurrencyLimiter) ? this.concurrencyLimiter : FluentRequest.concurrencyLimiter;
+    }
+
+    /**
+     * Resolves the metrics for the request, falling back to the default ones.
+     *
+     * @return The metrics, or null if there are none.
+     */
+    private FluentMetrics resolveMetrics() {
+      return Objects.nonNull(this.metrics) ? this.metrics : FluentRequest.metrics;
+    }
+
+    /**
+     * Resolves the codecs for the request, falling back to the default ones.
+     *
+     * @return The codecs.
+     */
+    private FluentCodecs resolveCodecs() {
+      return Objects.nonNull(this.codecs) ? this.codecs : FluentRequest.codecs;
+    }
+
+    /**
+     * Resolves the compression for the request body, falling back to the default one.
+     *
+     * @return The compression, or null if there is none.
+     */
+    private FluentCompression resolveCompression() {
+      return Objects.nonNull(this.compression) ? this.compression : FluentRequest.compression;
+    }
+
+    /**
+     * Creates the FluentResponse for the response, returning the cached body if the response confirms it
+     * was not modified, and caching the deserialized body otherwise.
+     *
+     * @param response The HTTP response.
+     * @param cacheKey The cache key of the request, or null if it is not cached.
+     * @param cached   The cached entry the request revalidates, or null if there is none.
+     * @return The FluentResponse containing the response body and HTTP response details.
+     * @throws IOException if an I/O error occurs during the deserialization of the body
+     */
+    private FluentResponse<T> toFluentResponse(Response response, String cacheKey, FluentCache.Entry cached)
+        throws IOException {
+      if (Objects.isNull(cacheKey)) {
+        return new FluentResponse<>(deserialize(response), response);
+      }
+
+      if (Objects.nonNull(cached) && response.code() == 304) {
+        return cache.revalidate(cacheKey, cached, response).toFluentResponse();
+      }
+
+      T body = deserialize(response);
+      cache.put(cacheKey, body, response);
+
+      return new FluentResponse<>(body, response);
+    }
+
+    /**
+     * Deserializes the response body, timing the deserialization if metrics are recorded for the call.
+     *
+     * @param response The HTTP response.
+     * @return The deserialized body.
+     * @throws IOException if an I/O error occurs during the deserialization of the body
+     */
+    private T deserialize(Response response) throws IOException {
+      FluentCallTimer timer = response.request().tag(FluentCallTimer.class);
+      boolean timed = Objects.nonNull(timer) && timer.claim();
+      Object event = FluentFlightRecorder.beginDeserialization();
+
+      if (!timed && Objects.isNull(event)) {
+        return deserializeAsJson(response);
+      }
+
+      long start = System.nanoTime();
+
+      try {
+        return deserializeAsJson(response);
+      } finally {
+        if (timed) {
+          timer.deserialized(System.nanoTime() - start);
+        }
+
+        if (Objects.nonNull(event)) {
+          FluentFlightRecorder.endDeserialization(event, typeName(), response.header("Content-Type"));
+        }
+      }
+    }
+
+    /**
+     * Builds the cache key of the request, or null if the request is not cached.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request.
+     * @return The cache key, or null if the request is not cached.
+     */
+    private String cacheKey(FluentHttpMethod method, Request request) {
+      if (Objects.isNull(cache) || method != FluentHttpMethod.GET) {
+        return null;
+      }
+
+      return requestKey(method, request, cacheHeaders);
+    }
+
+    /**
+     * Builds a key identifying the request by its method, URL, response type, credentials and the
+     * specified headers. The Authorization header is always part of the key, so that responses are never
+     * shared between identities.
+     *
+     * @param method  The HTTP method for the request.
+     * @param request The request.
+     * @param headers The names of the headers to include.
+     * @return The key of the request.
+     */
+    private String requestKey(FluentHttpMethod method, Request request, String[] headers) {
+      StringBuilder key = new StringBuilder()
+          .append(method.name()).append(' ')
+          .append(request.url()).append(' ')
+          .append(typeName());
+
+      String authorization = request.header("Authorization");
+
+      if (Objects.nonNull(authorization)) {
+        key.append("\nAuthorization:").append(authorization);
+      }
+
+      for (String header : headers) {
+        if (!"Authorization".equalsIgnoreCase(header)) {
+          key.append('\n').append(header).append(':').append(request.header(header));
+        }
+      }
+
+      return key.toString();
+    }
+
+    /**
+     * Gets the name of the expected response type.
+     *
+     * @return The name of the response type.
+     */
+    private String typeName() {
+      return Objects.nonNull(responseType) ? responseType.getName() : responseReference.getType().getTypeName();
+    }
+
+    /**
+     * Resolves the host of the request from the final URL.
+     *
+     * @return The host, or an empty string if the URL is not a valid HTTP URL.
+     */
+    String host() {
+      HttpUrl httpUrl = HttpUrl.parse(buildUrl(url, urlVariables, queryParameters));
+      return Objects.nonNull(httpUrl) ? httpUrl.host() : "";
+    }
+
+    /**
+     * Builds the OkHttp Request object based on the configured parameters.
+     *
+     * @param method The HTTP method for the request.
+     * @return The constructed OkHttp Request object.
+     */
+    private Request buildRequest(FluentHttpMethod method) {
+      return compress(new Request.Builder()
+          .url(buildUrl(url, urlVariables, queryParameters))
+          .headers(buildHeaders())
+          .method(method.name(), buildBody())
+          .build());
+    }
+
+    /**
+     * Compresses the body of the request if a compression is set.
+     *
+     * @param request The request.
+     * @return The request with a compressed body, or the request itself.
+     */
+    Request compress(Request request) {
+      FluentCompression compression = resolveCompression();
+      return Objects.nonNull(compression) ? compression.compress(request) : request;
+    }
+
+    /**
+     * Retrieves the body from the provided response object, deserialized with the codec of the request if
+     * the response has its format, or else with the first registered codec supporting the content type of
+     * the response, JSON by default. Typed bodies are parsed incrementally from the response stream, so the
+     * whole payload is never buffered in memory.
+     *
+     * @param response the response object from which to retrieve the JSON body
+     * @return the deserialized JSON body as an object of type T
      * @throws IOException if an I/O error occurs during the retrieval or deserialization of the JSON body
      */
-    private T deserializeAsJson(Response response) throws IOException {
-      if (Objects.isNull(response.body())) {
+    T deserializeAsJson(Response response) throws IOException {
+      ResponseBody responseBody = response.body();
+
+      if (Objects.isNull(responseBody)) {
         return null;
       }
 
       if (byte[].class.equals(responseType)) {
-        return (T) response.body().bytes();
+        return (T) responseBody.bytes();
       }
 
       if (String.class.equals(responseType)) {
-        return (T) response.body().string();
+        return (T) responseBody.string();
       }
 
-      if (Objects.nonNull(responseType)) {
-        return mapper.readValue(response.body().bytes(), this.responseType);
-      } else {
-        return mapper.readValue(response.body().bytes(), this.responseReference);
+      MediaType contentType = responseBody.contentType();
+      Type type = Objects.nonNull(responseType) ? responseType : responseReference.getType();
+
+      if (Objects.nonNull(codec) && (Objects.isNull(contentType) || codec.supports(contentType))) {
+        return read(codec, responseBody, type);
       }
+
+      FluentCodecs codecs = resolveCodecs();
+      FluentCodec reader = codecs.reader(contentType, type);
+
+      if (reader != codecs.getJson()) {
+        return read(reader, responseBody, type);
+      }
+
+      return resolveReader().readValue(responseBody.byteStream());
     }
 
     /**
-     * Builds the request body based on the configured parameters.
+     * Deserializes the response body with the specified codec.
      *
-     * @return The constructed RequestBody or null if no body is specified.
+     * @param codec        The codec to read the body with.
+     * @param responseBody The response body.
+     * @param type         The response type, that of T.
+     * @return The deserialized body as an object of type T.
+     * @throws IOException if an I/O error occurs during the deserialization
      */
-    private RequestBody buildBody() {
-      if (Objects.nonNull(this.body)) {
-        return this.body;
-      } else {
-        return null;
+    // The codec reads a value of the given type, which is always the response type T of this builder.
+    @SuppressWarnings("unchecked")
+    private T read(FluentCodec codec, ResponseBody responseBody, Type type) throws IOException {
+      return (T) codec.read(responseBody.byteStream(), type);
+    }
+
+    /**
+     * Resolves the JSON ObjectReader for the response type, preferring the one frozen by {@link #prepare()}.
+     *
+     * @return The ObjectReader to use.
+     */
+    private ObjectReader resolveReader() {
+      if (Objects.nonNull(this.reader)) {
+        return this.reader;
       }
+
+      FluentMapperRegistry mappers = resolveCodecs().getJson().getMappers();
+      return Objects.nonNull(responseType) ? mappers.reader(responseType) : mappers.reader(responseReference);
     }
 
     /**
-     * Converts the request body object to a JSON string.
+     * Creates the request body serializing the specified object, with the codec of the request or the
+     * first registered codec that writes it.
      *
      * @param body The request body object.
-     * @return The JSON representation of the request body.
-     * @throws FluentMappingException If there is an issue with mapping the body object to JSON.
+     * @return The RequestBody.
      */
-    private String getBodyAsString(Object body) throws FluentMappingException {
-      try {
-        return mapper.writeValueAsString(body);
-      } catch (JsonProcessingException e) {
-        throw new FluentMappingException(e);
+    RequestBody encode(Object body) {
+      return new FluentCodecBody(body, Objects.nonNull(codec) ? codec : resolveCodecs().writer(body));
+    }
+
+    /**
+     * Serializes the body object set so far again, after the codecs of the request changed.
+     */
+    private void reencode() {
+      if (this.body instanceof FluentCodecBody) {
+        this.body = encode(((FluentCodecBody) this.body).getValue());
+      }
+    }
+
+    /**
+     * Builds the request body based on the configured parameters.
+     *
+     * @return The constructed RequestBody or null if no body is specified.
+     */
+    RequestBody buildBody() {
+      if (Objects.nonNull(this.body)) {
+        return this.body;
+      } else {
+        return null;
       }
     }
 
     /**
-     * Builds the final URL by combining the base URL, URL variables, and query parameters.
+     * Builds the final URL by combining the base URL, URL variables, and query parameters. The base URL
+     * is compiled into a {@link FluentUrlTemplate} once and reused across requests.
      *
      * @param url             The base URL.
      * @param urlVariables    The map of URL variables.
@@ -647,30 +2217,41 @@ public class FluentRequest {
     private String buildUrl(String url,
                             Map<String, Object> urlVariables,
                             Map<String, Object> queryParameters) {
-      return FluentUrl.fromString(url)
-          .variables(urlVariables)
-          .parameters(queryParameters)
-          .build();
+      return template(url).expand(urlVariables, queryParameters);
     }
 
     /**
-     * Builds the headers for the request.
+     * Gets the builder of the request headers, creating it on first use.
      *
-     * @return the built Headers object
+     * @return The Headers.Builder of the request.
      */
-    private Headers buildHeaders() {
-      if (this.headers.isEmpty()) {
-        return Headers.of(Collections.emptyMap());
+    private Headers.Builder headerBuilder() {
+      if (Objects.isNull(this.headers)) {
+        this.headers = new Headers.Builder();
       }
 
-      List<String> headerNameAndValues = new ArrayList<>();
+      return this.headers;
+    }
 
-      this.headers.forEach(header -> {
-        headerNameAndValues.add(header.getKey());
-        headerNameAndValues.add(header.getValue());
-      });
+    /**
+     * Builds the headers for the request.
+     *
+     * @return the built Headers object, or a shared empty one if no headers were added
+     */
+    Headers buildHeaders() {
+      if (Objects.isNull(this.headers)) {
+        return EMPTY_HEADERS;
+      }
 
-      return Headers.of(headerNameAndValues.toArray(new String[0]));
+      return this.headers.build();
     }
   }
+
+  /**
+   * The CallHolder class is attached to a request as a tag to keep the call of its latest attempt, so that
+   * a streamed response can be cancelled once its caller stops reading it.
+   */
+  private static class CallHolder {
+    private volatile Call call;
+  }
 }
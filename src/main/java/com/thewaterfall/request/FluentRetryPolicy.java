@@ -0,0 +1,307 @@
+package com.thewaterfall.request;
+
+import com.thewaterfall.request.misc.FluentHttpMethod;
+import okhttp3.Request;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>The FluentRetryPolicy class describes when and how failed requests are sent again. Retries are
+ * delayed with a capped exponential backoff with full jitter, and limited by a retry budget shared by all
+ * requests using the policy, so that retries cannot multiply the load on an upstream that is already
+ * failing.</p>
+ *
+ * <p>The budget is a token bucket: each request adds a fraction of a token, up to a maximum, and each
+ * retry takes a whole token. With the defaults, retries are limited to 20% of the requests once the
+ * initial 10 tokens are spent.</p>
+ *
+ * <p>By default, requests are retried up to 2 times on I/O errors and on 429, 502, 503 and 504 responses,
+ * and only for idempotent methods. Requests with one-shot bodies are never retried.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentRetryPolicy policy = FluentRetryPolicy.builder()
+ *     .maxAttempts(4)
+ *     .backoff(Duration.ofMillis(50), Duration.ofSeconds(2))
+ *     .retryOnStatus(503)
+ *     .build();
+ *
+ * FluentRequest.request("https://api.example.com/articles", Article[].class)
+ *     .retry(policy)
+ *     .get();}</pre>
+ */
+public class FluentRetryPolicy {
+  private static final long TOKEN = 1000;
+
+  private final int maxAttempts;
+  private final long initialBackoffMillis;
+  private final long maxBackoffMillis;
+  private final double multiplier;
+  private final Set<Integer> statuses;
+  private final Set<Class<? extends IOException>> exceptions;
+  private final boolean nonIdempotent;
+
+  private final long budgetDeposit;
+  private final long budgetMax;
+  private final AtomicLong budget;
+
+  private FluentRetryPolicy(Builder builder) {
+    this.maxAttempts = builder.maxAttempts;
+    this.initialBackoffMillis = builder.initialBackoff.toMillis();
+    this.maxBackoffMillis = builder.maxBackoff.toMillis();
+    this.multiplier = builder.multiplier;
+    this.statuses = Collections.unmodifiableSet(new HashSet<>(builder.statuses));
+    this.exceptions = Collections.unmodifiableSet(new HashSet<>(builder.exceptions));
+    this.nonIdempotent = builder.nonIdempotent;
+
+    this.budgetDeposit = Math.round(builder.budgetRatio * TOKEN);
+    this.budgetMax = builder.budgetMax * TOKEN;
+    this.budget = new AtomicLong(budgetMax);
+  }
+
+  /**
+   * Creates a new Builder for a FluentRetryPolicy.
+   *
+   * @return A Builder instance with the default settings.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Gets the maximum number of attempts, including the first one.
+   *
+   * @return The maximum number of attempts.
+   */
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  /**
+   * Checks if a request can be retried at all with this policy, based on its method and body.
+   *
+   * @param method  The HTTP method of the request.
+   * @param request The request.
+   * @return true if the request can be retried, false otherwise.
+   */
+  boolean appliesTo(FluentHttpMethod method, Request request) {
+    if (maxAttempts < 2 || (!nonIdempotent && !method.isIdempotent())) {
+      return false;
+    }
+
+    return Objects.isNull(request.body()) || !request.body().isOneShot();
+  }
+
+  /**
+   * Records a request sent with this policy, adding to the retry budget.
+   */
+  void recordRequest() {
+    budget.accumulateAndGet(budgetDeposit, (current, deposit) -> Math.min(budgetMax, current + deposit));
+  }
+
+  /**
+   * Checks if a response with the specified status should be retried after the given attempt, taking a
+   * token from the retry budget if so.
+   *
+   * @param attempt The number of the attempt that failed, starting at 1.
+   * @param status  The status code of the response.
+   * @return true if the request should be retried, false otherwise.
+   */
+  boolean shouldRetry(int attempt, int status) {
+    return attempt < maxAttempts && statuses.contains(status) && withdraw();
+  }
+
+  /**
+   * Checks if an I/O error should be retried after the given attempt, taking a token from the retry
+   * budget if so.
+   *
+   * @param attempt The number of the attempt that failed, starting at 1.
+   * @param e       The I/O error.
+   * @return true if the request should be retried, false otherwise.
+   */
+  boolean shouldRetry(int attempt, IOException e) {
+    return attempt < maxAttempts && isRetryable(e) && withdraw();
+  }
+
+  /**
+   * Computes the delay before the next attempt, with full jitter.
+   *
+   * @param attempt The number of the attempt that failed, starting at 1.
+   * @return The delay in milliseconds.
+   */
+  long backoffMillis(int attempt) {
+    double backoff = initialBackoffMillis * Math.pow(multiplier, attempt - 1);
+    long capped = (long) Math.min(maxBackoffMillis, backoff);
+
+    return capped > 0 ? ThreadLocalRandom.current().nextLong(capped + 1) : 0;
+  }
+
+  /**
+   * Checks if the I/O error is one of the retryable types.
+   *
+   * @param e The I/O error.
+   * @return true if the error is retryable, false otherwise.
+   */
+  private boolean isRetryable(IOException e) {
+    for (Class<? extends IOException> type : exceptions) {
+      if (type.isInstance(e)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Takes a token from the retry budget.
+   *
+   * @return true if a token was taken, false if the budget is exhausted.
+   */
+  private boolean withdraw() {
+    long current;
+
+    do {
+      current = budget.get();
+
+      if (current < TOKEN) {
+        return false;
+      }
+    } while (!budget.compareAndSet(current, current - TOKEN));
+
+    return true;
+  }
+
+  /**
+   * The Builder class of the FluentRetryPolicy.
+   */
+  public static class Builder {
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(100);
+    private Duration maxBackoff = Duration.ofSeconds(5);
+    private double multiplier = 2.0;
+    private Set<Integer> statuses = new HashSet<>(Arrays.asList(429, 502, 503, 504));
+    private Set<Class<? extends IOException>> exceptions = new HashSet<>(Collections.singletonList(IOException.class));
+    private boolean nonIdempotent = false;
+    private double budgetRatio = 0.2;
+    private long budgetMax = 10;
+
+    private Builder() {
+    }
+
+    /**
+     * Sets the maximum number of attempts, including the first one. Defaults to 3.
+     *
+     * @param maxAttempts The maximum number of attempts.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder maxAttempts(int maxAttempts) {
+      if (maxAttempts < 1) {
+        throw new IllegalArgumentException("Max attempts must be positive: " + maxAttempts);
+      }
+
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    /**
+     * Sets the backoff before the first retry and the cap of the backoff. Defaults to 100ms and 5s.
+     *
+     * @param initialBackoff The backoff before the first retry.
+     * @param maxBackoff     The maximum backoff.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder backoff(Duration initialBackoff, Duration maxBackoff) {
+      this.initialBackoff = initialBackoff;
+      this.maxBackoff = maxBackoff;
+      return this;
+    }
+
+    /**
+     * Sets the factor the backoff grows by after each retry. Defaults to 2.
+     *
+     * @param multiplier The backoff multiplier.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder multiplier(double multiplier) {
+      if (multiplier < 1) {
+        throw new IllegalArgumentException("Multiplier must be at least 1: " + multiplier);
+      }
+
+      this.multiplier = multiplier;
+      return this;
+    }
+
+    /**
+     * Sets the response status codes that are retried, replacing the default ones (429, 502, 503, 504).
+     *
+     * @param statuses The retryable status codes.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder retryOnStatus(Integer... statuses) {
+      this.statuses = new HashSet<>(Arrays.asList(statuses));
+      return this;
+    }
+
+    /**
+     * Sets the types of I/O errors that are retried, replacing the default (any IOException).
+     *
+     * @param exceptions The retryable exception types.
+     * @return The Builder instance for method chaining.
+     */
+    @SafeVarargs
+    public final Builder retryOnException(Class<? extends IOException>... exceptions) {
+      this.exceptions = new HashSet<>();
+
+      for (Class<? extends IOException> exception : exceptions) {
+        this.exceptions.add(exception);
+      }
+
+      return this;
+    }
+
+    /**
+     * Allows retrying requests with non-idempotent methods, like POST and PATCH. Disabled by default.
+     *
+     * @param nonIdempotent true to retry non-idempotent requests.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder retryNonIdempotent(boolean nonIdempotent) {
+      this.nonIdempotent = nonIdempotent;
+      return this;
+    }
+
+    /**
+     * Sets the retry budget. Each request adds the given ratio of a token, up to the maximum number of
+     * tokens, and each retry takes one token. Defaults to 0.2 and 10.
+     *
+     * @param ratio     The share of requests that can be retried.
+     * @param maxTokens The maximum number of tokens, which is also the initial number.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder budget(double ratio, long maxTokens) {
+      if (ratio < 0 || maxTokens < 0) {
+        throw new IllegalArgumentException("Budget ratio and max tokens must not be negative");
+      }
+
+      this.budgetRatio = ratio;
+      this.budgetMax = maxTokens;
+      return this;
+    }
+
+    /**
+     * Builds the FluentRetryPolicy.
+     *
+     * @return The FluentRetryPolicy.
+     */
+    public FluentRetryPolicy build() {
+      return new FluentRetryPolicy(this);
+    }
+  }
+}
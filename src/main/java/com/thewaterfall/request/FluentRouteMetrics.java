@@ -0,0 +1,323 @@
+package com.thewaterfall.request;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>The FluentRouteMetrics class is the default {@link FluentMetrics} implementation. It keeps, for each
+ * method and URL template, the number of calls and failures, the number of responses per status class,
+ * the bytes sent and received, and a latency histogram for each phase of the calls.</p>
+ *
+ * <p>Recording is lock-free: counters are LongAdders and histograms are atomic arrays of log-linear
+ * buckets with a relative error below 7%.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentRouteMetrics metrics = new FluentRouteMetrics();
+ * FluentRequest.overrideMetrics(metrics);
+ *
+ * for (FluentRouteMetrics.Route route : metrics.getRoutes()) {
+ *   System.out.println(route.getMethod() + " " + route.getTemplate() + " p99="
+ *       + route.getLatency(FluentCallMetrics.Phase.TOTAL).getPercentile(0.99) + "ns");
+ * }}</pre>
+ */
+public class FluentRouteMetrics implements FluentMetrics {
+  private final ConcurrentMap<String, ConcurrentMap<String, Route>> routes = new ConcurrentHashMap<>();
+
+  /**
+   * Records the metrics of a call to its route.
+   *
+   * @param call The metrics of the call.
+   */
+  @Override
+  public void record(FluentCallMetrics call) {
+    ConcurrentMap<String, Route> methods = routes.get(call.getRoute());
+
+    if (Objects.isNull(methods)) {
+      methods = routes.computeIfAbsent(call.getRoute(), key -> new ConcurrentHashMap<>());
+    }
+
+    Route route = methods.get(call.getMethod());
+
+    if (Objects.isNull(route)) {
+      route = methods.computeIfAbsent(call.getMethod(), key -> new Route(call.getMethod(), call.getRoute()));
+    }
+
+    route.record(call);
+  }
+
+  /**
+   * Gets the metrics of the specified route.
+   *
+   * @param method   The HTTP method, like GET.
+   * @param template The URL template.
+   * @return The metrics of the route, or null if no calls were recorded for it.
+   */
+  public Route getRoute(String method, String template) {
+    ConcurrentMap<String, Route> methods = routes.get(template);
+    return Objects.nonNull(methods) ? methods.get(method) : null;
+  }
+
+  /**
+   * Gets the metrics of all routes with recorded calls.
+   *
+   * @return The metrics of the routes.
+   */
+  public Collection<Route> getRoutes() {
+    List<Route> all = new ArrayList<>();
+    routes.values().forEach(methods -> all.addAll(methods.values()));
+
+    return all;
+  }
+
+  /**
+   * The Route class holds the metrics of the calls with a single method and URL template.
+   */
+  public static class Route {
+    private final String method;
+    private final String template;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder[] statuses = new LongAdder[5];
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final Histogram[] latencies = new Histogram[FluentCallMetrics.Phase.values().length];
+
+    private Route(String method, String template) {
+      this.method = method;
+      this.template = template;
+
+      for (int i = 0; i < statuses.length; i++) {
+        statuses[i] = new LongAdder();
+      }
+
+      for (int i = 0; i < latencies.length; i++) {
+        latencies[i] = new Histogram();
+      }
+    }
+
+    /**
+     * Records the metrics of a call.
+     *
+     * @param call The metrics of the call.
+     */
+    private void record(FluentCallMetrics call) {
+      calls.increment();
+
+      if (call.isFailed()) {
+        failures.increment();
+      }
+
+      int statusClass = call.getStatus() / 100;
+
+      if (statusClass >= 1 && statusClass <= statuses.length) {
+        statuses[statusClass - 1].increment();
+      }
+
+      bytesSent.add(call.getBytesSent());
+      bytesReceived.add(call.getBytesReceived());
+
+      for (FluentCallMetrics.Phase phase : FluentCallMetrics.Phase.values()) {
+        long nanos = call.getNanos(phase);
+
+        if (nanos > 0) {
+          latencies[phase.ordinal()].record(nanos);
+        }
+      }
+    }
+
+    /**
+     * Gets the HTTP method of the route.
+     *
+     * @return The method.
+     */
+    public String getMethod() {
+      return method;
+    }
+
+    /**
+     * Gets the URL template of the route.
+     *
+     * @return The URL template.
+     */
+    public String getTemplate() {
+      return template;
+    }
+
+    /**
+     * Gets the number of calls.
+     *
+     * @return The number of calls.
+     */
+    public long getCalls() {
+      return calls.sum();
+    }
+
+    /**
+     * Gets the number of calls that failed with an I/O error.
+     *
+     * @return The number of failed calls.
+     */
+    public long getFailures() {
+      return failures.sum();
+    }
+
+    /**
+     * Gets the number of responses with a status code of the specified class.
+     *
+     * @param statusClass The status class, from 1 for 1xx to 5 for 5xx.
+     * @return The number of responses.
+     */
+    public long getStatusCount(int statusClass) {
+      if (statusClass < 1 || statusClass > statuses.length) {
+        throw new IllegalArgumentException("Status class must be between 1 and 5: " + statusClass);
+      }
+
+      return statuses[statusClass - 1].sum();
+    }
+
+    /**
+     * Gets the total number of bytes of the request bodies.
+     *
+     * @return The number of bytes sent.
+     */
+    public long getBytesSent() {
+      return bytesSent.sum();
+    }
+
+    /**
+     * Gets the total number of bytes of the response bodies.
+     *
+     * @return The number of bytes received.
+     */
+    public long getBytesReceived() {
+      return bytesReceived.sum();
+    }
+
+    /**
+     * Gets the latency histogram of the specified phase. Calls that skipped the phase, like DNS on a
+     * pooled connection, are not counted in it.
+     *
+     * @param phase The phase.
+     * @return The latency histogram.
+     */
+    public Histogram getLatency(FluentCallMetrics.Phase phase) {
+      return latencies[phase.ordinal()];
+    }
+  }
+
+  /**
+   * The Histogram class counts latencies in log-linear buckets: each power of two is split into 8 buckets.
+   */
+  public static class Histogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    private Histogram() {
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    private void record(long nanos) {
+      counts.incrementAndGet(index(nanos));
+      count.increment();
+      sum.add(nanos);
+    }
+
+    /**
+     * Gets the number of recorded latencies.
+     *
+     * @return The number of latencies.
+     */
+    public long getCount() {
+      return count.sum();
+    }
+
+    /**
+     * Gets the mean of the recorded latencies.
+     *
+     * @return The mean in nanoseconds, or 0 if there are none.
+     */
+    public long getMean() {
+      long total = count.sum();
+      return total > 0 ? sum.sum() / total : 0;
+    }
+
+    /**
+     * Gets the specified percentile of the recorded latencies.
+     *
+     * @param percentile The percentile, between 0 and 1, like 0.99.
+     * @return The latency in nanoseconds, or 0 if there are none.
+     */
+    public long getPercentile(double percentile) {
+      long[] snapshot = new long[BUCKETS];
+      long total = 0;
+
+      for (int i = 0; i < BUCKETS; i++) {
+        snapshot[i] = counts.get(i);
+        total += snapshot[i];
+      }
+
+      long rank = (long) Math.ceil(percentile * total);
+      long seen = 0;
+
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += snapshot[i];
+
+        if (seen >= rank && seen > 0) {
+          return value(i);
+        }
+      }
+
+      return 0;
+    }
+
+    /**
+     * Computes the bucket of a latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     * @return The index of the bucket.
+     */
+    private static int index(long nanos) {
+      if (nanos < SUB_BUCKETS) {
+        return (int) Math.max(0, nanos);
+      }
+
+      int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+      int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+      return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Computes the middle value of a bucket.
+     *
+     * @param index The index of the bucket.
+     * @return The value in nanoseconds.
+     */
+    private static long value(int index) {
+      if (index < SUB_BUCKETS) {
+        return index;
+      }
+
+      int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+      long width = 1L << (exponent - SUB_BUCKET_BITS);
+
+      return (SUB_BUCKETS + index % SUB_BUCKETS) * width + width / 2;
+    }
+  }
+}
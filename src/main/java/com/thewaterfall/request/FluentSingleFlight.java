@@ -0,0 +1,97 @@
+package com.thewaterfall.request;
+
+import com.thewaterfall.request.misc.FluentResponse;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>The FluentSingleFlight class coalesces concurrent identical requests, so that only the first one is
+ * sent and the others wait for and share its result. A request only joins a call that is still in flight,
+ * and nothing is kept once the call completes. The flight is completed whatever the call throws, errors
+ * included, so the requests waiting for it never hang.</p>
+ *
+ * @see FluentRequest.Builder#coalesce(String...)
+ */
+class FluentSingleFlight {
+  private final ConcurrentMap<String, CompletableFuture<FluentResponse<?>>> flights = new ConcurrentHashMap<>();
+
+  /**
+   * Sends the request synchronously, or waits for the result of an identical request in flight.
+   *
+   * @param key  The key identifying identical requests.
+   * @param call The call sending the request.
+   * @param <T>  The type of the response body.
+   * @return The FluentResponse, shared with the coalesced requests.
+   */
+  @SuppressWarnings("unchecked")
+  <T> FluentResponse<T> execute(String key, Supplier<FluentResponse<T>> call) {
+    CompletableFuture<FluentResponse<?>> flight = new CompletableFuture<>();
+    CompletableFuture<FluentResponse<?>> existing = flights.putIfAbsent(key, flight);
+
+    if (Objects.nonNull(existing)) {
+      try {
+        return (FluentResponse<T>) existing.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+
+        throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+      }
+    }
+
+    try {
+      FluentResponse<T> response = call.get();
+      flight.complete(response);
+
+      return response;
+    } catch (Throwable e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      flights.remove(key, flight);
+    }
+  }
+
+  /**
+   * Sends the request asynchronously, or joins an identical request in flight. Each caller gets its own
+   * future, so cancelling it does not cancel the call shared with the others.
+   *
+   * @param key  The key identifying identical requests.
+   * @param call The call sending the request.
+   * @param <T>  The type of the response body.
+   * @return A future of the FluentResponse, shared with the coalesced requests.
+   */
+  @SuppressWarnings("unchecked")
+  <T> CompletableFuture<FluentResponse<T>> executeAsync(String key,
+                                                        Supplier<CompletableFuture<FluentResponse<T>>> call) {
+    CompletableFuture<FluentResponse<?>> flight = new CompletableFuture<>();
+    CompletableFuture<FluentResponse<?>> existing = flights.putIfAbsent(key, flight);
+
+    if (Objects.nonNull(existing)) {
+      return existing.thenApply(response -> (FluentResponse<T>) response);
+    }
+
+    try {
+      call.get().whenComplete((response, e) -> {
+        flights.remove(key, flight);
+
+        if (Objects.isNull(e)) {
+          flight.complete(response);
+        } else {
+          flight.completeExceptionally(e);
+        }
+      });
+    } catch (Throwable e) {
+      flights.remove(key, flight);
+      flight.completeExceptionally(e);
+    }
+
+    return flight.thenApply(response -> (FluentResponse<T>) response);
+  }
+}
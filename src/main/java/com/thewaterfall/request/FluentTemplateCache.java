@@ -0,0 +1,94 @@
+package com.thewaterfall.request;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>The FluentTemplateCache class is a bounded cache of compiled URL templates, keyed by the raw URL.
+ * Lookups are lock-free, and only adding a template takes a lock.</p>
+ *
+ * <p>Once the cache is full, templates are evicted with the CLOCK algorithm: templates used since the last
+ * sweep get a second chance, so the templates in use stay cached while URLs used only once, like URLs with
+ * IDs concatenated into them, are evicted first.</p>
+ */
+class FluentTemplateCache {
+  private final int maxEntries;
+  private final ConcurrentMap<String, Node> entries = new ConcurrentHashMap<>();
+  private final Queue<Node> clock = new ArrayDeque<>();
+
+  /**
+   * Constructs a FluentTemplateCache holding up to the specified number of templates.
+   *
+   * @param maxEntries The maximum number of templates.
+   */
+  FluentTemplateCache(int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * Gets the compiled template for the specified URL, compiling and caching it on first use.
+   *
+   * @param url The raw URL template.
+   * @return The compiled FluentUrlTemplate.
+   */
+  FluentUrlTemplate get(String url) {
+    Node node = entries.get(url);
+
+    if (Objects.nonNull(node)) {
+      if (!node.used) {
+        node.used = true;
+      }
+
+      return node.template;
+    }
+
+    Node created = new Node(url, FluentUrlTemplate.compile(url));
+
+    synchronized (this) {
+      Node existing = entries.putIfAbsent(url, created);
+
+      if (Objects.nonNull(existing)) {
+        return existing.template;
+      }
+
+      clock.add(created);
+
+      while (clock.size() > maxEntries) {
+        evict();
+      }
+    }
+
+    return created.template;
+  }
+
+  /**
+   * Moves the clock hand by one template, evicting it unless it was used since the last sweep.
+   */
+  private void evict() {
+    Node node = clock.poll();
+
+    if (node.used) {
+      node.used = false;
+      clock.add(node);
+    } else {
+      entries.remove(node.url, node);
+    }
+  }
+
+  /**
+   * A cached template along with its URL and whether it was used since the last sweep.
+   */
+  private static class Node {
+    private final String url;
+    private final FluentUrlTemplate template;
+    private volatile boolean used;
+
+    private Node(String url, FluentUrlTemplate template) {
+      this.url = url;
+      this.template = template;
+    }
+  }
+}
@@ -0,0 +1,266 @@
+package com.thewaterfall.request;
+
+import com.thewaterfall.request.misc.FluentUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>The FluentUrlTemplate class is a precompiled form of a URL with variables and query parameters.
+ * The template is parsed once into literal and variable segments and can then be expanded any number of
+ * times in a single pass, producing the same URL as {@link FluentUrl#build()}.</p>
+ *
+ * <p>Templates are immutable and thread-safe.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentUrlTemplate template = FluentUrlTemplate.compile("https://api.example.com/users/{id}");
+ * String url = template.expand(variables, parameters);}</pre>
+ */
+public class FluentUrlTemplate {
+  private static final Pattern QUERY_PARAM_PATTERN = Pattern.compile("([?&])([^=]+)=([^&]+)");
+
+  private final String template;
+  private final String[] literals;
+  private final String[] names;
+  private final int[] variables;
+  private final Map<String, ?> queryParameters;
+
+  private FluentUrlTemplate(String template, String[] literals, String[] names, int[] variables,
+                            Map<String, ?> queryParameters) {
+    this.template = template;
+    this.literals = literals;
+    this.names = names;
+    this.variables = variables;
+    this.queryParameters = queryParameters;
+  }
+
+  /**
+   * Compiles the provided URL into a template. Variable example: {@code ../posts/{postId}}.
+   *
+   * @param url The URL to compile.
+   * @return A FluentUrlTemplate for the URL.
+   */
+  public static FluentUrlTemplate compile(String url) {
+    int queryIndex = url.indexOf('?');
+    String path = (queryIndex == -1) ? url : url.substring(0, queryIndex);
+
+    List<String> literals = new ArrayList<>();
+    List<String> variables = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+
+    int position = 0;
+    int open;
+
+    while ((open = path.indexOf('{', position)) != -1) {
+      int close = path.indexOf('}', open + 1);
+
+      if (close == -1) {
+        break;
+      }
+
+      String name = path.substring(open + 1, close);
+
+      if (!names.contains(name)) {
+        names.add(name);
+      }
+
+      literals.add(path.substring(position, open));
+      variables.add(name);
+      position = close + 1;
+    }
+
+    literals.add(path.substring(position));
+
+    return new FluentUrlTemplate(url,
+        literals.toArray(new String[0]),
+        names.toArray(new String[0]),
+        variables.stream().mapToInt(names::indexOf).toArray(),
+        extractQueryParams(url));
+  }
+
+  /**
+   * Gets the raw template this instance was compiled from.
+   *
+   * @return The raw template.
+   */
+  public String getTemplate() {
+    return template;
+  }
+
+  /**
+   * Gets the names of the variables of the template, in the order they first appear.
+   *
+   * @return The names of the variables.
+   */
+  public List<String> getVariables() {
+    return Collections.unmodifiableList(Arrays.asList(names));
+  }
+
+  /**
+   * Expands the template with the provided variables and query parameters. Variables without a value
+   * are left in place, and query parameters override those present in the template.
+   *
+   * @param urlVariables    The map of URL variables.
+   * @param queryParameters The map of query parameters.
+   * @return The formatted URL with variables and query parameters.
+   */
+  public String expand(Map<String, Object> urlVariables, Map<String, Object> queryParameters) {
+    StringBuilder url = new StringBuilder(template.length() + 16 * (variables.length + queryParameters.size()));
+
+    url.append(literals[0]);
+
+    for (int i = 0; i < variables.length; i++) {
+      String name = names[variables[i]];
+
+      if (urlVariables.containsKey(name)) {
+        url.append(urlVariables.get(name));
+      } else {
+        url.append('{').append(name).append('}');
+      }
+
+      url.append(literals[i + 1]);
+    }
+
+    appendParameters(url, mergeParameters(queryParameters));
+
+    return url.toString();
+  }
+
+  /**
+   * Expands the template with the provided variable values, bound by position in the order returned by
+   * {@link #getVariables()}, and query parameters. Variables without a value are left in place, and query
+   * parameters override those present in the template.
+   *
+   * @param values          The values of the URL variables.
+   * @param queryParameters The map of query parameters.
+   * @return The formatted URL with variables and query parameters.
+   */
+  public String expand(Object[] values, Map<String, Object> queryParameters) {
+    StringBuilder url = new StringBuilder(template.length() + 16 * (variables.length + queryParameters.size()));
+
+    url.append(literals[0]);
+
+    for (int i = 0; i < variables.length; i++) {
+      int variable = variables[i];
+
+      if (variable < values.length) {
+        url.append(values[variable]);
+      } else {
+        url.append('{').append(names[variable]).append('}');
+      }
+
+      url.append(literals[i + 1]);
+    }
+
+    appendParameters(url, mergeParameters(queryParameters));
+
+    return url.toString();
+  }
+
+  /**
+   * Returns a template with the provided variables and query parameters applied, leaving the other
+   * variables to be expanded later. The raw template is kept as is.
+   *
+   * @param urlVariables    The map of URL variables to apply.
+   * @param queryParameters The map of query parameters to apply.
+   * @return The partially applied FluentUrlTemplate.
+   */
+  public FluentUrlTemplate apply(Map<String, Object> urlVariables, Map<String, Object> queryParameters) {
+    List<String> appliedLiterals = new ArrayList<>();
+    List<String> appliedNames = new ArrayList<>();
+    List<Integer> appliedVariables = new ArrayList<>();
+
+    StringBuilder literal = new StringBuilder(literals[0]);
+
+    for (int i = 0; i < variables.length; i++) {
+      String name = names[variables[i]];
+
+      if (urlVariables.containsKey(name)) {
+        literal.append(urlVariables.get(name));
+      } else {
+        if (!appliedNames.contains(name)) {
+          appliedNames.add(name);
+        }
+
+        appliedLiterals.add(literal.toString());
+        appliedVariables.add(appliedNames.indexOf(name));
+        literal.setLength(0);
+      }
+
+      literal.append(literals[i + 1]);
+    }
+
+    appliedLiterals.add(literal.toString());
+
+    return new FluentUrlTemplate(template,
+        appliedLiterals.toArray(new String[0]),
+        appliedNames.toArray(new String[0]),
+        appliedVariables.stream().mapToInt(Integer::intValue).toArray(),
+        Collections.unmodifiableMap(new HashMap<>(mergeParameters(queryParameters))));
+  }
+
+  /**
+   * Merges the query parameters of the template with the provided ones, skipping the copy when
+   * either side is empty.
+   *
+   * @param queryParameters The map of query parameters.
+   * @return The merged query parameters.
+   */
+  private Map<String, ?> mergeParameters(Map<String, ?> queryParameters) {
+    if (this.queryParameters.isEmpty()) {
+      return queryParameters;
+    }
+
+    if (queryParameters.isEmpty()) {
+      return this.queryParameters;
+    }
+
+    Map<String, Object> merged = new HashMap<>(this.queryParameters);
+    merged.putAll(queryParameters);
+
+    return merged;
+  }
+
+  /**
+   * Appends the query parameters to the URL.
+   *
+   * @param url             The URL being built.
+   * @param queryParameters The map of query parameters.
+   */
+  private static void appendParameters(StringBuilder url, Map<String, ?> queryParameters) {
+    char separator = '?';
+
+    for (Map.Entry<String, ?> entry : queryParameters.entrySet()) {
+      url.append(separator).append(entry.getKey()).append('=').append(entry.getValue());
+      separator = '&';
+    }
+  }
+
+  /**
+   * Extracts all query parameters from the given URL and returns them as a map.
+   *
+   * @param url The URL to extract the query parameters from.
+   * @return An unmodifiable map of all query parameters in the URL.
+   */
+  private static Map<String, String> extractQueryParams(String url) {
+    Matcher matcher = QUERY_PARAM_PATTERN.matcher(url);
+    Map<String, String> queryParams = new HashMap<>();
+
+    while (matcher.find()) {
+      String key = matcher.group(2);
+      String value = matcher.group(3);
+
+      if (FluentUtils.isNotEmptyString(key) && FluentUtils.isNotEmptyString(value)) {
+        queryParams.put(key, value);
+      }
+    }
+
+    return queryParams.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(queryParams);
+  }
+}
@@ -0,0 +1,274 @@
+package com.thewaterfall.request;
+
+import com.thewaterfall.request.misc.FluentHttpMethod;
+import com.thewaterfall.request.misc.FluentResponse;
+import okhttp3.Headers;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>The PreparedFluentRequest class is an immutable, reusable request created with
+ * {@link FluentRequest.Builder#prepare()}. The static parts of the request, like the compiled URL template,
+ * the headers and the response reader, are resolved once, and each call only binds its own URL variables,
+ * query parameters and body.</p>
+ *
+ * <p>Variables can be bound by position, in the order they first appear in the URL template, which avoids
+ * allocating any maps per call. A prepared request is thread-safe and can be shared.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code PreparedFluentRequest<Order> order = FluentRequest.request("https://api.example.com/users/{id}/orders/{orderId}", Order.class)
+ *     .bearer(token)
+ *     .prepare();
+ *
+ * order.get(1, 42);
+ * order.bind()
+ *     .variable("id", 2)
+ *     .variable("orderId", 7)
+ *     .parameter("expand", "items")
+ *     .get();}</pre>
+ *
+ * @param <T> The type of the response body expected.
+ * @see FluentRequest.Builder#prepare()
+ */
+public class PreparedFluentRequest<T> {
+  private final FluentRequest.Builder<T> sender;
+  private final FluentUrlTemplate template;
+  private final Headers headers;
+  private final RequestBody body;
+
+  /**
+   * Constructs a PreparedFluentRequest from its resolved parts.
+   *
+   * @param sender   The frozen Builder used to send the requests.
+   * @param template The URL template with the variables and parameters of the builder applied.
+   * @param headers  The headers of the requests.
+   * @param body     The default body of the requests, or null if there is none.
+   */
+  PreparedFluentRequest(FluentRequest.Builder<T> sender, FluentUrlTemplate template, Headers headers,
+                        RequestBody body) {
+    this.sender = sender;
+    this.template = template;
+    this.headers = headers;
+    this.body = body;
+  }
+
+  /**
+   * Starts binding the variables, parameters and body of a single call.
+   *
+   * @return A Binding for configuring and sending the call.
+   */
+  public Binding<T> bind() {
+    return new Binding<>(this);
+  }
+
+  /**
+   * Sends the request synchronously with a specified method and variables bound by position.
+   *
+   * @param method    The HTTP method to be used for the request.
+   * @param variables The values of the URL variables, in the order they first appear in the URL template.
+   * @return The FluentResponse containing the response body and HTTP response details.
+   */
+  public FluentResponse<T> execute(FluentHttpMethod method, Object... variables) {
+    return sender.send(method, buildRequest(method, template.expand(variables, Collections.emptyMap()), body));
+  }
+
+  /**
+   * Sends the request asynchronously with a specified method and variables bound by position.
+   *
+   * @param method    The HTTP method to be used for the request.
+   * @param variables The values of the URL variables, in the order they first appear in the URL template.
+   * @return A CompletableFuture completed with the FluentResponse.
+   */
+  public CompletableFuture<FluentResponse<T>> executeAsync(FluentHttpMethod method, Object... variables) {
+    return sender.sendAsync(method, buildRequest(method, template.expand(variables, Collections.emptyMap()), body));
+  }
+
+  /**
+   * Sends a GET request synchronously with variables bound by position.
+   *
+   * @param variables The values of the URL variables, in the order they first appear in the URL template.
+   * @return The FluentResponse containing the response body and HTTP response details.
+   */
+  public FluentResponse<T> get(Object... variables) {
+    return execute(FluentHttpMethod.GET, variables);
+  }
+
+  /**
+   * Sends a GET request asynchronously with variables bound by position.
+   *
+   * @param variables The values of the URL variables, in the order they first appear in the URL template.
+   * @return A CompletableFuture completed with the FluentResponse.
+   */
+  public CompletableFuture<FluentResponse<T>> getAsync(Object... variables) {
+    return executeAsync(FluentHttpMethod.GET, variables);
+  }
+
+  /**
+   * Builds the OkHttp Request from the prepared headers.
+   *
+   * @param method The HTTP method for the request.
+   * @param url    The final URL.
+   * @param body   The request body, or null if there is none.
+   * @return The constructed OkHttp Request object.
+   */
+  private Request buildRequest(FluentHttpMethod method, String url, RequestBody body) {
+    return sender.compress(new Request.Builder()
+        .url(url)
+        .headers(headers)
+        .method(method.name(), body)
+        .build());
+  }
+
+  /**
+   * The Binding class binds the URL variables, query parameters and body of a single call of a
+   * PreparedFluentRequest.
+   *
+   * @param <T> The type of the response body expected.
+   */
+  public static class Binding<T> {
+    private final PreparedFluentRequest<T> prepared;
+
+    private final Map<String, Object> urlVariables = new HashMap<>();
+    private final Map<String, Object> queryParameters = new HashMap<>();
+    private RequestBody body;
+
+    private Binding(PreparedFluentRequest<T> prepared) {
+      this.prepared = prepared;
+      this.body = prepared.body;
+    }
+
+    /**
+     * Binds a URL variable.
+     *
+     * @param name  The name of the URL variable.
+     * @param value The value of the URL variable.
+     * @return The Binding instance for method chaining.
+     */
+    public Binding<T> variable(String name, Object value) {
+      if (Objects.nonNull(value)) {
+        this.urlVariables.put(name, String.valueOf(value));
+      }
+
+      return this;
+    }
+
+    /**
+     * Binds a query parameter, overriding the prepared one with the same name.
+     *
+     * @param name  The name of the query parameter.
+     * @param value The value of the query parameter.
+     * @return The Binding instance for method chaining.
+     */
+    public Binding<T> parameter(String name, Object value) {
+      if (Objects.nonNull(value)) {
+        this.queryParameters.put(name, String.valueOf(value));
+      }
+
+      return this;
+    }
+
+    /**
+     * Sets the request body, serialized to JSON, or with the codec of the request if it has one, directly
+     * into the request stream when the request is sent.
+     *
+     * @param body The request body object.
+     * @return The Binding instance for method chaining.
+     */
+    public Binding<T> body(Object body) {
+      this.body = prepared.sender.encode(body);
+      return this;
+    }
+
+    /**
+     * Sets the request body using a custom RequestBody.
+     *
+     * @param body The custom RequestBody.
+     * @return The Binding instance for method chaining.
+     */
+    public Binding<T> body(RequestBody body) {
+      this.body = body;
+      return this;
+    }
+
+    /**
+     * Sends the request synchronously with a specified method.
+     *
+     * @param method The HTTP method to be used for the request.
+     * @return The FluentResponse containing the response body and HTTP response details.
+     */
+    public FluentResponse<T> execute(FluentHttpMethod method) {
+      return prepared.sender.send(method, buildRequest(method));
+    }
+
+    /**
+     * Sends the request asynchronously with a specified method.
+     *
+     * @param method The HTTP method to be used for the request.
+     * @return A CompletableFuture completed with the FluentResponse.
+     */
+    public CompletableFuture<FluentResponse<T>> executeAsync(FluentHttpMethod method) {
+      return prepared.sender.sendAsync(method, buildRequest(method));
+    }
+
+    /**
+     * Sends a GET request synchronously.
+     *
+     * @return The FluentResponse containing the response body and HTTP response details.
+     */
+    public FluentResponse<T> get() {
+      return execute(FluentHttpMethod.GET);
+    }
+
+    /**
+     * Sends a POST request synchronously.
+     *
+     * @return The FluentResponse containing the response body and HTTP response details.
+     */
+    public FluentResponse<T> post() {
+      return execute(FluentHttpMethod.POST);
+    }
+
+    /**
+     * Sends a PUT request synchronously.
+     *
+     * @return The FluentResponse containing the response body and HTTP response details.
+     */
+    public FluentResponse<T> put() {
+      return execute(FluentHttpMethod.PUT);
+    }
+
+    /**
+     * Sends a PATCH request synchronously.
+     *
+     * @return The FluentResponse containing the response body and HTTP response details.
+     */
+    public FluentResponse<T> patch() {
+      return execute(FluentHttpMethod.PATCH);
+    }
+
+    /**
+     * Sends a DELETE request synchronously.
+     *
+     * @return The FluentResponse containing the response body and HTTP response details.
+     */
+    public FluentResponse<T> delete() {
+      return execute(FluentHttpMethod.DELETE);
+    }
+
+    /**
+     * Builds the OkHttp Request from the bound variables, parameters and body.
+     *
+     * @param method The HTTP method for the request.
+     * @return The constructed OkHttp Request object.
+     */
+    private Request buildRequest(FluentHttpMethod method) {
+      return prepared.buildRequest(method, prepared.template.expand(urlVariables, queryParameters), body);
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.thewaterfall.request.misc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import okhttp3.MediaType;
+
+/**
+ * <p>The FluentCborCodec class is a {@link FluentCodec} for CBOR, the binary format of RFC 8949. CBOR
+ * bodies map to the same classes as JSON ones, but are smaller and faster to parse.</p>
+ *
+ * <p>It requires {@code com.fasterxml.jackson.dataformat:jackson-dataformat-cbor} on the classpath.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentRequest.request("https://internal.example.com/orders", Order[].class)
+ *     .codec(new FluentCborCodec())
+ *     .get();}</pre>
+ */
+public class FluentCborCodec extends FluentJacksonCodec {
+  /**
+   * The media type of CBOR bodies.
+   */
+  public static final MediaType CBOR = MediaType.get("application/cbor");
+
+  /**
+   * Constructs a FluentCborCodec with a default CBORMapper.
+   */
+  public FluentCborCodec() {
+    this(new CBORMapper());
+  }
+
+  /**
+   * Constructs a FluentCborCodec with the specified mapper.
+   *
+   * @param mapper The ObjectMapper to use, created with a CBORFactory.
+   */
+  public FluentCborCodec(ObjectMapper mapper) {
+    super(mapper, CBOR);
+  }
+}
@@ -0,0 +1,31 @@
+package com.thewaterfall.request.misc;
+
+/**
+ * The FluentCircuitOpenException class is a custom exception used to indicate that a request was not sent
+ * because the circuit breaker for its host is open.
+ *
+ */
+public class FluentCircuitOpenException extends FluentIOException {
+  private static final long serialVersionUID = 1L;
+
+  private final String host;
+
+  /**
+   * Constructs a FluentCircuitOpenException for the specified host.
+   *
+   * @param host The host whose circuit is open.
+   */
+  public FluentCircuitOpenException(String host) {
+    super("Circuit breaker is open for host: " + host);
+    this.host = host;
+  }
+
+  /**
+   * Gets the host whose circuit is open.
+   *
+   * @return The host.
+   */
+  public String getHost() {
+    return host;
+  }
+}
@@ -0,0 +1,90 @@
+package com.thewaterfall.request.misc;
+
+import okhttp3.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * <p>The FluentCodec interface serializes request bodies and deserializes response bodies in a single
+ * format, identified by its media type. Requests with a codec send their body in its format and ask for
+ * responses in it with the {@code Accept} header, and responses are deserialized with it when their
+ * {@code Content-Type} matches.</p>
+ *
+ * <p>Codecs registered in {@link FluentCodecs} are picked by the class of the request body and the content
+ * type of the response, so a codec can serve only some types, like generated classes, and leave the others
+ * to the default Jackson codec.</p>
+ *
+ * <p>Implementations must be thread-safe, since a codec is shared by all the requests using it.</p>
+ *
+ * @see FluentCodecs
+ * @see FluentJacksonCodec
+ * @see FluentSmileCodec
+ * @see FluentCborCodec
+ */
+public interface FluentCodec {
+  /**
+   * Gets the media type of the format, sent as the {@code Content-Type} of request bodies.
+   *
+   * @return The media type.
+   */
+  MediaType getMediaType();
+
+  /**
+   * Serializes a value into the output stream, without closing it.
+   *
+   * @param value  The value to serialize.
+   * @param output The stream to write to.
+   * @throws IOException If an I/O or mapping error occurs.
+   */
+  void write(Object value, OutputStream output) throws IOException;
+
+  /**
+   * Deserializes a value of the specified type from the input stream.
+   *
+   * @param input The stream to read from.
+   * @param type  The type of the value, a Class or a generic type.
+   * @return The deserialized value.
+   * @throws IOException If an I/O or mapping error occurs.
+   */
+  Object read(InputStream input, Type type) throws IOException;
+
+  /**
+   * Checks if the codec is picked by {@link FluentCodecs} to serialize request bodies of the specified
+   * class. Since the format of a request body cannot be negotiated with the server, defaults to none, so
+   * general formats like Smile are only written by requests they are set on, while they read any response
+   * in their format.
+   *
+   * @param type The class of the value.
+   * @return true if the codec serializes the class, false otherwise.
+   */
+  default boolean canWrite(Class<?> type) {
+    return false;
+  }
+
+  /**
+   * Checks if the codec can deserialize values of the specified type. Defaults to all types.
+   *
+   * @param type The type of the value, a Class or a generic type.
+   * @return true if the codec can deserialize the type, false otherwise.
+   */
+  default boolean canRead(Type type) {
+    return true;
+  }
+
+  /**
+   * Checks if the codec reads the format of the specified content type. Parameters like the charset are
+   * ignored.
+   *
+   * @param contentType The content type of a response body.
+   * @return true if the content type has the type and subtype of the codec, false otherwise.
+   */
+  default boolean supports(MediaType contentType) {
+    MediaType mediaType = getMediaType();
+
+    return mediaType.type().equalsIgnoreCase(contentType.type())
+        && mediaType.subtype().equalsIgnoreCase(contentType.subtype());
+  }
+}
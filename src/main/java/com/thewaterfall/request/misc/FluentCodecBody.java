@@ -0,0 +1,91 @@
+package com.thewaterfall.request.misc;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * <p>The FluentCodecBody class is a RequestBody that serializes its value with a {@link FluentCodec}
+ * directly into the OkHttp sink when the request is written, so the serialized representation is never
+ * materialized as a String or byte array.</p>
+ *
+ * <p>The content length is unknown up front, so the body is sent with chunked transfer encoding. Since
+ * serialization is deferred to {@link #writeTo(BufferedSink)}, mapping errors surface while the request
+ * is being sent rather than when the body is set.</p>
+ */
+public class FluentCodecBody extends RequestBody {
+  private final Object value;
+  private final FluentCodec codec;
+
+  /**
+   * Constructs a FluentCodecBody with the specified value and codec.
+   *
+   * @param value The object to serialize as the request body.
+   * @param codec The codec used to serialize the value.
+   */
+  public FluentCodecBody(Object value, FluentCodec codec) {
+    this.value = value;
+    this.codec = codec;
+  }
+
+  /**
+   * Gets the object serialized as the request body.
+   *
+   * @return The value.
+   */
+  public Object getValue() {
+    return value;
+  }
+
+  /**
+   * Gets the codec the value is serialized with.
+   *
+   * @return The codec.
+   */
+  public FluentCodec getCodec() {
+    return codec;
+  }
+
+  /**
+   * Gets the content type of the body, which is the media type of the codec.
+   *
+   * @return The media type.
+   */
+  @Override
+  public MediaType contentType() {
+    return codec.getMediaType();
+  }
+
+  /**
+   * Gets the content length of the body, which is unknown until the value is serialized.
+   *
+   * @return -1 to indicate an unknown content length.
+   */
+  @Override
+  public long contentLength() {
+    return -1;
+  }
+
+  /**
+   * Serializes the value directly into the provided sink, without flushing or closing it.
+   *
+   * @param sink The sink to write the serialized value to.
+   * @throws IOException If an I/O or mapping error occurs during serialization.
+   */
+  @Override
+  public void writeTo(BufferedSink sink) throws IOException {
+    Object event = FluentFlightRecorder.beginSerialization();
+
+    try {
+      codec.write(value, sink.outputStream());
+    } finally {
+      if (Objects.nonNull(event)) {
+        FluentFlightRecorder.endSerialization(event, Objects.nonNull(value) ? value.getClass() : null,
+            codec.getMediaType().toString());
+      }
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.thewaterfall.request.misc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.MediaType;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>The FluentCodecs class picks the {@link FluentCodec} of each request and response body from a list of
+ * registered codecs, falling back to a Jackson JSON codec. Request bodies are serialized with the first
+ * codec that writes their class, see {@link FluentCodec#canWrite(Class)}, and response bodies are deserialized with the first codec that
+ * supports their {@code Content-Type} and can read the expected type. Responses without a content type
+ * are read as JSON.</p>
+ *
+ * <p>Codecs are tried in the order they were registered, so a faster codec for specific types, like one
+ * using generated code, can be registered ahead of a more general one of the same media type.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentRequest.overrideCodecs(FluentCodecs.builder()
+ *     .register(new OrderCodec())
+ *     .register(new FluentSmileCodec())
+ *     .build());}</pre>
+ */
+public class FluentCodecs {
+  /**
+   * The media type of JSON bodies.
+   */
+  public static final MediaType JSON = MediaType.get("application/json");
+
+  private final List<FluentCodec> codecs;
+  private final FluentJacksonCodec json;
+
+  private FluentCodecs(List<FluentCodec> codecs, FluentJacksonCodec json) {
+    this.codecs = codecs;
+    this.json = json;
+  }
+
+  /**
+   * Creates FluentCodecs with only the JSON codec of the specified mapper.
+   *
+   * @param mapper The ObjectMapper for JSON.
+   * @return The FluentCodecs.
+   */
+  public static FluentCodecs json(ObjectMapper mapper) {
+    return new FluentCodecs(Collections.emptyList(), new FluentJacksonCodec(mapper, JSON));
+  }
+
+  /**
+   * Creates a new Builder for FluentCodecs.
+   *
+   * @return A Builder instance with no registered codecs and a default ObjectMapper for JSON.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a copy of these codecs with the JSON codec of the specified mapper.
+   *
+   * @param mapper The ObjectMapper for JSON.
+   * @return The FluentCodecs with the new JSON codec.
+   */
+  public FluentCodecs withMapper(ObjectMapper mapper) {
+    return new FluentCodecs(codecs, new FluentJacksonCodec(mapper, JSON));
+  }
+
+  /**
+   * Gets the JSON codec used when no registered codec applies.
+   *
+   * @return The JSON codec.
+   */
+  public FluentJacksonCodec getJson() {
+    return json;
+  }
+
+  /**
+   * Gets the codec to serialize the specified value with.
+   *
+   * @param value The value to serialize.
+   * @return The first registered codec that writes the class of the value, or the JSON codec.
+   */
+  public FluentCodec writer(Object value) {
+    if (Objects.isNull(value)) {
+      return json;
+    }
+
+    for (FluentCodec codec : codecs) {
+      if (codec.canWrite(value.getClass())) {
+        return codec;
+      }
+    }
+
+    return json;
+  }
+
+  /**
+   * Gets the codec to deserialize a response body with.
+   *
+   * @param contentType The content type of the response body, or null if it has none.
+   * @param type        The type to deserialize, a Class or a generic type.
+   * @return The first registered codec that supports the content type and can read the type, or the JSON
+   * codec.
+   */
+  public FluentCodec reader(MediaType contentType, Type type) {
+    MediaType mediaType = Objects.nonNull(contentType) ? contentType : JSON;
+
+    for (FluentCodec codec : codecs) {
+      if (codec.supports(mediaType) && codec.canRead(type)) {
+        return codec;
+      }
+    }
+
+    return json;
+  }
+
+  /**
+   * The Builder class of FluentCodecs.
+   */
+  public static class Builder {
+    private final List<FluentCodec> codecs = new ArrayList<>();
+    private ObjectMapper mapper;
+
+    private Builder() {
+    }
+
+    /**
+     * Registers a codec, tried after the codecs registered before it.
+     *
+     * @param codec The codec to register.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder register(FluentCodec codec) {
+      if (Objects.isNull(codec)) {
+        throw new IllegalArgumentException("Codec must not be null");
+      }
+
+      codecs.add(codec);
+      return this;
+    }
+
+    /**
+     * Sets the ObjectMapper of the JSON codec used when no registered codec applies. Defaults to a new
+     * ObjectMapper.
+     *
+     * @param mapper The ObjectMapper for JSON.
+     * @return The Builder instance for method chaining.
+     */
+    public Builder mapper(ObjectMapper mapper) {
+      this.mapper = mapper;
+      return this;
+    }
+
+    /**
+     * Builds the FluentCodecs.
+     *
+     * @return The FluentCodecs.
+     */
+    public FluentCodecs build() {
+      ObjectMapper json = Objects.nonNull(mapper) ? mapper : new ObjectMapper();
+      return new FluentCodecs(new ArrayList<>(codecs), new FluentJacksonCodec(json, JSON));
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.thewaterfall.request.misc;
+
+/**
+ * The FluentConcurrencyLimitException class is a custom exception used to indicate that a request was not
+ * sent because the number of requests in flight to its host reached the concurrency limit.
+ *
+ */
+public class FluentConcurrencyLimitException extends FluentIOException {
+  private static final long serialVersionUID = 1L;
+
+  private final String host;
+  private final int limit;
+
+  /**
+   * Constructs a FluentConcurrencyLimitException for the specified host and limit.
+   *
+   * @param host  The host whose limit was reached.
+   * @param limit The concurrency limit at the time of the request.
+   */
+  public FluentConcurrencyLimitException(String host, int limit) {
+    super("Concurrency limit of " + limit + " reached for host: " + host);
+    this.host = host;
+    this.limit = limit;
+  }
+
+  /**
+   * Gets the host whose limit was reached.
+   *
+   * @return The host.
+   */
+  public String getHost() {
+    return host;
+  }
+
+  /**
+   * Gets the concurrency limit at the time of the request.
+   *
+   * @return The limit.
+   */
+  public int getLimit() {
+    return limit;
+  }
+}
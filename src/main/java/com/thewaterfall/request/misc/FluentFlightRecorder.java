@@ -0,0 +1,92 @@
+package com.thewaterfall.request.misc;
+
+/**
+ * <p>The FluentFlightRecorder class emits Java Flight Recorder events for HTTP calls, request body
+ * serialization and response body deserialization.</p>
+ *
+ * <p>This is the Java 8 version of the class, which does nothing. The library is packaged as a
+ * multi-release JAR, and on Java 11 or newer a version emitting JFR events is loaded instead. Events are
+ * started with a begin method, which returns null if the event is not recorded, and the returned handle is
+ * passed to the matching end method.</p>
+ */
+public class FluentFlightRecorder {
+  /**
+   * Checks if JFR events are supported by the running Java version.
+   *
+   * @return true if JFR events are supported, false otherwise.
+   */
+  public static boolean isSupported() {
+    return false;
+  }
+
+  /**
+   * Starts the event of an HTTP call.
+   *
+   * @return The event, or null if it is not recorded.
+   */
+  public static Object beginCall() {
+    return null;
+  }
+
+  /**
+   * Ends the event of an HTTP call, once its response headers are received or it fails.
+   *
+   * @param event The event returned by {@link #beginCall()}, or null.
+   */
+  public static void endCall(Object event) {
+  }
+
+  /**
+   * Commits the event of an HTTP call, once its bytes sent and received are known. The event ends at the
+   * time of the commit if {@link #endCall(Object)} was not called.
+   *
+   * @param event         The event returned by {@link #beginCall()}, or null.
+   * @param method        The HTTP method of the call.
+   * @param route         The URL template of the call.
+   * @param attempt       The number of the attempt, starting at 1.
+   * @param status        The status code of the response, or 0 if the call failed.
+   * @param bytesSent     The number of bytes of the request body sent.
+   * @param bytesReceived The number of bytes of the response body received, as sent over the network.
+   */
+  public static void commitCall(Object event, String method, String route, int attempt, int status,
+                                long bytesSent, long bytesReceived) {
+  }
+
+  /**
+   * Starts the event of a body serialization.
+   *
+   * @return The event, or null if it is not recorded.
+   */
+  public static Object beginSerialization() {
+    return null;
+  }
+
+  /**
+   * Ends the event of a body serialization and commits it.
+   *
+   * @param event       The event returned by {@link #beginSerialization()}, or null.
+   * @param type        The type of the serialized value.
+   * @param contentType The content type of the body.
+   */
+  public static void endSerialization(Object event, Class<?> type, String contentType) {
+  }
+
+  /**
+   * Starts the event of a body deserialization.
+   *
+   * @return The event, or null if it is not recorded.
+   */
+  public static Object beginDeserialization() {
+    return null;
+  }
+
+  /**
+   * Ends the event of a body deserialization and commits it.
+   *
+   * @param event       The event returned by {@link #beginDeserialization()}, or null.
+   * @param type        The name of the deserialized type.
+   * @param contentType The content type of the body, or null if it is unknown.
+   */
+  public static void endDeserialization(Object event, String type, String contentType) {
+  }
+}
@@ -26,4 +26,23 @@ public enum FluentHttpMethod {
 
     throw new IllegalArgumentException("Invalid method: " + method);
   }
+
+  /**
+   * Checks if the method is safe, meaning it is read-only and does not change the state of the server.
+   *
+   * @return true if the method is GET, HEAD, OPTIONS or TRACE, false otherwise.
+   */
+  public boolean isSafe() {
+    return this == GET || this == HEAD || this == OPTIONS || this == TRACE;
+  }
+
+  /**
+   * Checks if the method is idempotent, meaning sending the same request several times has the same
+   * effect as sending it once.
+   *
+   * @return true if the method is safe, PUT or DELETE, false otherwise.
+   */
+  public boolean isIdempotent() {
+    return isSafe() || this == PUT || this == DELETE;
+  }
 }
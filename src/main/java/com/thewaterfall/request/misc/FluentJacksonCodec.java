@@ -0,0 +1,57 @@
+package com.thewaterfall.request.misc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * <p>The FluentJacksonCodec class is a {@link FluentCodec} backed by a Jackson ObjectMapper. The format is
+ * the one of the JsonFactory of the mapper, so the same class serves JSON and the Jackson binary formats.
+ * Readers and writers are cached per type in a {@link FluentMapperRegistry}.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentCodec yaml = new FluentJacksonCodec(new YAMLMapper(), MediaType.get("application/yaml"));}</pre>
+ */
+public class FluentJacksonCodec implements FluentCodec {
+  private final FluentMapperRegistry mappers;
+  private final MediaType mediaType;
+
+  /**
+   * Constructs a FluentJacksonCodec for the specified mapper and media type.
+   *
+   * @param mapper    The ObjectMapper to serialize and deserialize with.
+   * @param mediaType The media type of the format of the mapper.
+   */
+  public FluentJacksonCodec(ObjectMapper mapper, MediaType mediaType) {
+    this.mappers = new FluentMapperRegistry(mapper);
+    this.mediaType = mediaType;
+  }
+
+  /**
+   * Gets the registry of the readers and writers of the codec.
+   *
+   * @return The FluentMapperRegistry.
+   */
+  public FluentMapperRegistry getMappers() {
+    return mappers;
+  }
+
+  @Override
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  @Override
+  public void write(Object value, OutputStream output) throws IOException {
+    mappers.writer(value).writeValue(output, value);
+  }
+
+  @Override
+  public Object read(InputStream input, Type type) throws IOException {
+    return mappers.reader(type).readValue(input);
+  }
+}
@@ -0,0 +1,103 @@
+package com.thewaterfall.request.misc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>The FluentMapperRegistry class caches Jackson ObjectReader and ObjectWriter instances per type
+ * for a single ObjectMapper, so the root type is resolved once instead of on every request.</p>
+ *
+ * <p>Readers and writers are immutable and thread-safe, and the registry is bound to the mapper it was
+ * created with. To invalidate it, create a new registry for the new mapper.</p>
+ */
+public class FluentMapperRegistry {
+  private final ObjectMapper mapper;
+
+  private final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a FluentMapperRegistry for the specified ObjectMapper.
+   *
+   * @param mapper The ObjectMapper to create readers and writers from.
+   */
+  public FluentMapperRegistry(ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  /**
+   * Gets the ObjectMapper this registry is bound to.
+   *
+   * @return The ObjectMapper.
+   */
+  public ObjectMapper getMapper() {
+    return mapper;
+  }
+
+  /**
+   * Gets a cached ObjectReader for the specified class.
+   *
+   * @param type The class to read.
+   * @return The ObjectReader for the class.
+   */
+  public ObjectReader reader(Class<?> type) {
+    return readers.computeIfAbsent(type, key -> mapper.readerFor(type));
+  }
+
+  /**
+   * Gets a cached ObjectReader for the specified type reference. Type references are keyed by the
+   * type they capture, so separate instances of the same generic type share a reader.
+   *
+   * @param reference The type reference to read.
+   * @return The ObjectReader for the referenced type.
+   */
+  public ObjectReader reader(TypeReference<?> reference) {
+    return readers.computeIfAbsent(reference.getType(), type -> mapper.readerFor(reference));
+  }
+
+  /**
+   * Gets a cached ObjectReader for the specified type, either a Class or a generic type.
+   *
+   * @param type The type to read.
+   * @return The ObjectReader for the type.
+   */
+  public ObjectReader reader(Type type) {
+    return readers.computeIfAbsent(type, key -> mapper.readerFor(mapper.constructType(type)));
+  }
+
+  /**
+   * Gets a cached ObjectWriter for the runtime class of the specified value. Writers are configured for
+   * streaming into request bodies, so they neither flush nor close the target they write to.
+   *
+   * @param value The value to write.
+   * @return The ObjectWriter for the class of the value, or a plain writer if the value is null.
+   */
+  public ObjectWriter writer(Object value) {
+    if (value == null) {
+      return streaming(mapper.writer());
+    }
+
+    return writers.computeIfAbsent(value.getClass(), type -> streaming(mapper.writerFor(type)));
+  }
+
+  /**
+   * Configures the writer to neither flush nor close the target it writes to.
+   *
+   * @param writer The writer to configure.
+   * @return The configured writer.
+   */
+  private static ObjectWriter streaming(ObjectWriter writer) {
+    return writer
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+}
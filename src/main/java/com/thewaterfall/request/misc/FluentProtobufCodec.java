@@ -0,0 +1,132 @@
+package com.thewaterfall.request.misc;
+
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import okhttp3.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>The FluentProtobufCodec class is a {@link FluentCodec} for Protocol Buffers messages. Request bodies
+ * are written by the message straight into the request stream, and response bodies are parsed by the
+ * parser of the expected message class straight from the response stream, without copying the payload
+ * into a byte array.</p>
+ *
+ * <p>It serializes and deserializes classes extending MessageLite, full and lite runtimes alike, and
+ * reads responses of content type {@code application/x-protobuf} or {@code application/protobuf}. The
+ * parser of each message class is looked up once and cached.</p>
+ *
+ * <p>It requires {@code com.google.protobuf:protobuf-java} or {@code protobuf-javalite} on the
+ * classpath.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentRequest.overrideCodecs(FluentCodecs.builder()
+ *     .register(new FluentProtobufCodec())
+ *     .build());
+ *
+ * Order order = FluentRequest.request("https://internal.example.com/orders/{id}", Order.class)
+ *     .variable("id", 1)
+ *     .get()
+ *     .getBody();}</pre>
+ */
+public class FluentProtobufCodec implements FluentCodec {
+  /**
+   * The media type of Protocol Buffers bodies.
+   */
+  public static final MediaType PROTOBUF = MediaType.get("application/x-protobuf");
+
+  private final ConcurrentMap<Class<?>, Parser<?>> parsers = new ConcurrentHashMap<>();
+
+  @Override
+  public MediaType getMediaType() {
+    return PROTOBUF;
+  }
+
+  @Override
+  public boolean supports(MediaType contentType) {
+    return "application".equalsIgnoreCase(contentType.type())
+        && ("x-protobuf".equalsIgnoreCase(contentType.subtype())
+        || "protobuf".equalsIgnoreCase(contentType.subtype()));
+  }
+
+  @Override
+  public boolean canWrite(Class<?> type) {
+    return MessageLite.class.isAssignableFrom(type);
+  }
+
+  @Override
+  public boolean canRead(Type type) {
+    return type instanceof Class && MessageLite.class.isAssignableFrom((Class<?>) type);
+  }
+
+  /**
+   * Writes the message into the output stream, without flushing or closing it.
+   *
+   * @param value  The message to write.
+   * @param output The stream to write to.
+   * @throws IOException If an I/O error occurs.
+   */
+  @Override
+  public void write(Object value, OutputStream output) throws IOException {
+    if (!(value instanceof MessageLite)) {
+      throw new FluentMappingException("Value is not a Protocol Buffers message: "
+          + (Objects.isNull(value) ? "null" : value.getClass().getName()));
+    }
+
+    ((MessageLite) value).writeTo(output);
+  }
+
+  /**
+   * Parses a message of the specified class from the input stream.
+   *
+   * @param input The stream to read from.
+   * @param type  The class of the message.
+   * @return The parsed message.
+   * @throws IOException If an I/O error occurs or the message is malformed.
+   */
+  @Override
+  public Object read(InputStream input, Type type) throws IOException {
+    if (!canRead(type)) {
+      throw new FluentMappingException("Type is not a Protocol Buffers message: " + type.getTypeName());
+    }
+
+    return parser((Class<?>) type).parseFrom(input);
+  }
+
+  /**
+   * Gets the cached parser of the specified message class, from its default instance.
+   *
+   * @param type The class of the message.
+   * @return The parser of the message.
+   */
+  private Parser<?> parser(Class<?> type) {
+    Parser<?> parser = parsers.get(type);
+
+    if (Objects.isNull(parser)) {
+      parser = parsers.computeIfAbsent(type, FluentProtobufCodec::lookup);
+    }
+
+    return parser;
+  }
+
+  /**
+   * Looks up the parser of the specified message class with its static getDefaultInstance method.
+   *
+   * @param type The class of the message.
+   * @return The parser of the message.
+   */
+  private static Parser<?> lookup(Class<?> type) {
+    try {
+      MessageLite instance = (MessageLite) type.getMethod("getDefaultInstance").invoke(null);
+      return instance.getParserForType();
+    } catch (ReflectiveOperationException | ClassCastException e) {
+      throw new FluentMappingException("No parser found for message " + type.getName(), e);
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.thewaterfall.request.misc;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>The FluentPublisher class publishes the records of a {@link FluentStream} as a
+ * {@code java.util.concurrent.Flow.Publisher}.</p>
+ *
+ * <p>This is the Java 8 version of the class, which reports the Flow API as unsupported. The library is
+ * packaged as a multi-release JAR, and on Java 11 or newer a version implementing
+ * {@code Flow.Publisher} is loaded instead.</p>
+ *
+ * @param <T> The type of the records.
+ */
+public class FluentPublisher<T> {
+  /**
+   * Constructs a FluentPublisher opening a new stream for each subscriber.
+   *
+   * @param source   Opens the stream of records, by sending the request.
+   * @param executor The Executor the records are read and published on.
+   * @throws UnsupportedOperationException If the Flow API is not supported by the running Java version.
+   */
+  public FluentPublisher(Callable<FluentStream<T>> source, Executor executor) {
+    throw new UnsupportedOperationException("Flow publishers require Java 11 or newer");
+  }
+
+  /**
+   * Checks if the Flow API is supported by the running Java version.
+   *
+   * @return true if the Flow API is supported, false otherwise.
+   */
+  public static boolean isSupported() {
+    return false;
+  }
+}
@@ -0,0 +1,46 @@
+package com.thewaterfall.request.misc;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>The FluentScheduler class runs delayed tasks of the FluentRequest, like sending an asynchronous
+ * request again after a backoff.</p>
+ *
+ * <p>Tasks run on a single daemon thread and must only hand work off, for example by enqueueing a call on
+ * the OkHttp dispatcher, without blocking.</p>
+ */
+public class FluentScheduler {
+  private static final ScheduledExecutorService scheduler = createScheduler();
+
+  /**
+   * Schedules a task to run after the specified delay.
+   *
+   * @param task  The task to run.
+   * @param delay The delay before running the task.
+   * @param unit  The unit of the delay.
+   * @return The ScheduledFuture of the task.
+   */
+  public static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+    return scheduler.schedule(task, delay, unit);
+  }
+
+  /**
+   * Creates the scheduler with a single daemon thread that removes cancelled tasks right away.
+   *
+   * @return The ScheduledExecutorService.
+   */
+  private static ScheduledExecutorService createScheduler() {
+    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, task -> {
+      Thread thread = new Thread(task, "FluentRequest Scheduler");
+      thread.setDaemon(true);
+
+      return thread;
+    });
+    executor.setRemoveOnCancelPolicy(true);
+
+    return executor;
+  }
+}
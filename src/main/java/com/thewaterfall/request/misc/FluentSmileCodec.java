@@ -0,0 +1,40 @@
+package com.thewaterfall.request.misc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import okhttp3.MediaType;
+
+/**
+ * <p>The FluentSmileCodec class is a {@link FluentCodec} for Smile, the binary JSON format of Jackson. Smile
+ * bodies map to the same classes as JSON ones, but are smaller and faster to parse, since field names are
+ * back-referenced and numbers are sent in binary.</p>
+ *
+ * <p>It requires {@code com.fasterxml.jackson.dataformat:jackson-dataformat-smile} on the classpath.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentRequest.request("https://internal.example.com/orders", Order[].class)
+ *     .codec(new FluentSmileCodec())
+ *     .get();}</pre>
+ */
+public class FluentSmileCodec extends FluentJacksonCodec {
+  /**
+   * The media type of Smile bodies.
+   */
+  public static final MediaType SMILE = MediaType.get("application/x-jackson-smile");
+
+  /**
+   * Constructs a FluentSmileCodec with a default SmileMapper.
+   */
+  public FluentSmileCodec() {
+    this(new SmileMapper());
+  }
+
+  /**
+   * Constructs a FluentSmileCodec with the specified mapper.
+   *
+   * @param mapper The ObjectMapper to use, created with a SmileFactory.
+   */
+  public FluentSmileCodec(ObjectMapper mapper) {
+    super(mapper, SMILE);
+  }
+}
@@ -0,0 +1,271 @@
+package com.thewaterfall.request.misc;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import okhttp3.Call;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>The FluentStream class iterates over the records of a response body, deserializing one record at a
+ * time from the response stream while it is read, so memory use does not depend on the size of the
+ * body. It reads either newline-delimited JSON (NDJSON, JSON lines), where each record is a JSON value, or
+ * the elements of a top-level JSON array.</p>
+ *
+ * <p>The stream holds the HTTP response open until it is closed. It closes itself once all records are
+ * read or an error occurs, and must be closed otherwise, for instance with try-with-resources. Closing it
+ * before the end of the body cancels the call, if the stream was given one, which closes the connection
+ * (or only the stream over HTTP/2) right away instead of reading the remaining records. Without a call,
+ * OkHttp discards the rest of the body for up to 100 milliseconds on the closing thread to keep the
+ * connection for reuse, and closes it if the body has not ended by then.</p>
+ *
+ * <p>Errors are thrown from {@link #hasNext()} and {@link #next()} as a {@link FluentIOException}.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code try (FluentStream<Event> events = FluentRequest.request("https://api.example.com/export").lines(Event.class)) {
+ *   while (events.hasNext()) {
+ *     process(events.next());
+ *   }
+ * }}</pre>
+ *
+ * @param <T> The type of the records.
+ */
+public class FluentStream<T> implements Iterator<T>, Closeable {
+  private final Response response;
+  private final Call call;
+  private final JsonParser parser;
+  private final ObjectReader reader;
+  private final JsonToken end;
+
+  private boolean ready;
+  private boolean done;
+  private boolean complete;
+
+  private FluentStream(Response response, Call call, JsonParser parser, ObjectReader reader, JsonToken end) {
+    this.response = response;
+    this.call = call;
+    this.parser = parser;
+    this.reader = reader;
+    this.end = end;
+    this.done = Objects.isNull(parser);
+  }
+
+  /**
+   * Creates a FluentStream reading the newline-delimited JSON records of a response body. Records may also
+   * be separated by any other whitespace.
+   *
+   * @param response The HTTP response, closed by the stream.
+   * @param reader   The ObjectReader of the type of the records.
+   * @param <T>      The type of the records.
+   * @return The FluentStream of the records.
+   * @throws IOException If the body cannot be read.
+   */
+  public static <T> FluentStream<T> lines(Response response, ObjectReader reader) throws IOException {
+    return open(response, reader, null, false);
+  }
+
+  /**
+   * Creates a FluentStream reading the newline-delimited JSON records of a response body, cancelling the
+   * call of the response if the stream is closed before the end of the body.
+   *
+   * @param response The HTTP response, closed by the stream.
+   * @param reader   The ObjectReader of the type of the records.
+   * @param call     The call of the response, or null if it is not known.
+   * @param <T>      The type of the records.
+   * @return The FluentStream of the records.
+   * @throws IOException If the body cannot be read.
+   */
+  public static <T> FluentStream<T> lines(Response response, ObjectReader reader, Call call) throws IOException {
+    return open(response, reader, call, false);
+  }
+
+  /**
+   * Creates a FluentStream reading the elements of the top-level JSON array of a response body. Elements
+   * are read up to the end of the array, and an empty body has no elements.
+   *
+   * @param response The HTTP response, closed by the stream.
+   * @param reader   The ObjectReader of the type of the elements.
+   * @param <T>      The type of the elements.
+   * @return The FluentStream of the elements.
+   * @throws IOException If the body cannot be read or is not a JSON array.
+   */
+  public static <T> FluentStream<T> array(Response response, ObjectReader reader) throws IOException {
+    return open(response, reader, null, true);
+  }
+
+  /**
+   * Creates a FluentStream reading the elements of the top-level JSON array of a response body, cancelling
+   * the call of the response if the stream is closed before the end of the array.
+   *
+   * @param response The HTTP response, closed by the stream.
+   * @param reader   The ObjectReader of the type of the elements.
+   * @param call     The call of the response, or null if it is not known.
+   * @param <T>      The type of the elements.
+   * @return The FluentStream of the elements.
+   * @throws IOException If the body cannot be read or is not a JSON array.
+   */
+  public static <T> FluentStream<T> array(Response response, ObjectReader reader, Call call) throws IOException {
+    return open(response, reader, call, true);
+  }
+
+  /**
+   * Opens a parser over the response body, positioned at the start of the array if the body is one.
+   *
+   * @param response The HTTP response, closed by the stream.
+   * @param reader   The ObjectReader of the type of the records.
+   * @param call     The call of the response, or null if it is not known.
+   * @param array    true if the body is a JSON array, false if it is newline-delimited JSON.
+   * @param <T>      The type of the records.
+   * @return The FluentStream of the records.
+   * @throws IOException If the body cannot be read or is not of the expected format.
+   */
+  private static <T> FluentStream<T> open(Response response, ObjectReader reader, Call call, boolean array)
+      throws IOException {
+    ResponseBody body = response.body();
+
+    if (Objects.isNull(body)) {
+      response.close();
+      return new FluentStream<>(response, call, null, reader, null);
+    }
+
+    JsonParser parser = null;
+
+    try {
+      parser = reader.getFactory().createParser(body.byteStream());
+
+      if (!array) {
+        return new FluentStream<>(response, call, parser, reader, null);
+      }
+
+      JsonToken token = parser.nextToken();
+
+      if (Objects.isNull(token)) {
+        parser.close();
+        response.close();
+        return new FluentStream<>(response, call, null, reader, null);
+      }
+
+      if (token != JsonToken.START_ARRAY) {
+        throw MismatchedInputException.from(parser, reader.getValueType(),
+            "Expected a JSON array but got " + token);
+      }
+
+      return new FluentStream<>(response, call, parser, reader, JsonToken.END_ARRAY);
+    } catch (IOException | RuntimeException e) {
+      if (Objects.nonNull(parser)) {
+        parser.close();
+      }
+
+      response.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the raw OkHttp response, whose body is read by the stream.
+   *
+   * @return The raw HTTP response.
+   */
+  public Response getResponse() {
+    return response;
+  }
+
+  /**
+   * Checks if there is another record, reading up to its start from the response stream.
+   *
+   * @return true if there is another record, false once the body is over.
+   * @throws FluentIOException If the body cannot be read.
+   */
+  @Override
+  public boolean hasNext() {
+    if (ready || done) {
+      return ready;
+    }
+
+    try {
+      JsonToken token = parser.nextToken();
+
+      if (Objects.isNull(token) || token == end) {
+        complete = true;
+        close();
+      } else {
+        ready = true;
+      }
+
+      return ready;
+    } catch (IOException e) {
+      close();
+      throw new FluentIOException(e);
+    }
+  }
+
+  /**
+   * Reads the next record from the response stream.
+   *
+   * @return The next record.
+   * @throws NoSuchElementException If the body is over.
+   * @throws FluentIOException      If the record cannot be read or deserialized.
+   */
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    ready = false;
+
+    try {
+      return reader.readValue(parser);
+    } catch (IOException e) {
+      close();
+      throw new FluentIOException(e);
+    }
+  }
+
+  /**
+   * Creates a sequential Stream of the remaining records. Closing the Stream closes this FluentStream.
+   *
+   * @return The Stream of the records.
+   */
+  public Stream<T> stream() {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+        .onClose(this::close);
+  }
+
+  /**
+   * Closes the response. If the body has not been read to the end, the call is cancelled first, so that
+   * the records that were not read yet are dropped along with the connection instead of being read.
+   */
+  @Override
+  public void close() {
+    if (done) {
+      return;
+    }
+
+    done = true;
+    ready = false;
+
+    if (!complete && Objects.nonNull(call)) {
+      call.cancel();
+    }
+
+    try {
+      parser.close();
+    } catch (IOException ignored) {
+    } finally {
+      response.close();
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.thewaterfall.request.misc;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * <p>The FluentVirtualThreads class provides access to virtual threads when they are available.</p>
+ *
+ * <p>This is the Java 8 version of the class, which reports virtual threads as unsupported. The library
+ * is packaged as a multi-release JAR, and on Java 21 or newer a version backed by
+ * {@code Executors.newVirtualThreadPerTaskExecutor()} is loaded instead.</p>
+ */
+public class FluentVirtualThreads {
+  /**
+   * Checks if virtual threads are supported by the running Java version.
+   *
+   * @return true if virtual threads are supported, false otherwise.
+   */
+  public static boolean isSupported() {
+    return false;
+  }
+
+  /**
+   * Creates an ExecutorService that starts a new virtual thread for each task.
+   *
+   * @return The virtual thread ExecutorService.
+   * @throws UnsupportedOperationException If virtual threads are not supported by the running Java version.
+   */
+  public static ExecutorService newExecutor() {
+    throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+  }
+}
@@ -0,0 +1,227 @@
+package com.thewaterfall.request.misc;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Objects;
+
+/**
+ * <p>The FluentFlightRecorder class emits Java Flight Recorder events for HTTP calls, request body
+ * serialization and response body deserialization.</p>
+ *
+ * <p>This is the Java 11 version of the class, loaded from the multi-release JAR on Java 11 or newer. The
+ * begin methods check if the event type is enabled before creating an event, so nothing is allocated while
+ * no recording is running.</p>
+ */
+public class FluentFlightRecorder {
+  private static final EventType CALL = EventType.getEventType(CallEvent.class);
+  private static final EventType SERIALIZATION = EventType.getEventType(SerializationEvent.class);
+  private static final EventType DESERIALIZATION = EventType.getEventType(DeserializationEvent.class);
+
+  /**
+   * Checks if JFR events are supported by the running Java version.
+   *
+   * @return true if JFR events are supported, false otherwise.
+   */
+  public static boolean isSupported() {
+    return true;
+  }
+
+  /**
+   * Starts the event of an HTTP call.
+   *
+   * @return The event, or null if it is not recorded.
+   */
+  public static Object beginCall() {
+    if (!CALL.isEnabled()) {
+      return null;
+    }
+
+    CallEvent event = new CallEvent();
+    event.begin();
+
+    return event;
+  }
+
+  /**
+   * Ends the event of an HTTP call, once its response headers are received or it fails.
+   *
+   * @param event The event returned by {@link #beginCall()}, or null.
+   */
+  public static void endCall(Object event) {
+    if (Objects.nonNull(event)) {
+      ((CallEvent) event).end();
+    }
+  }
+
+  /**
+   * Commits the event of an HTTP call, once its bytes sent and received are known. The event ends at the
+   * time of the commit if {@link #endCall(Object)} was not called.
+   *
+   * @param event         The event returned by {@link #beginCall()}, or null.
+   * @param method        The HTTP method of the call.
+   * @param route         The URL template of the call.
+   * @param attempt       The number of the attempt, starting at 1.
+   * @param status        The status code of the response, or 0 if the call failed.
+   * @param bytesSent     The number of bytes of the request body sent.
+   * @param bytesReceived The number of bytes of the response body received, as sent over the network.
+   */
+  public static void commitCall(Object event, String method, String route, int attempt, int status,
+                                long bytesSent, long bytesReceived) {
+    if (Objects.isNull(event)) {
+      return;
+    }
+
+    CallEvent call = (CallEvent) event;
+
+    if (call.shouldCommit()) {
+      call.method = method;
+      call.route = route;
+      call.attempt = attempt;
+      call.status = status;
+      call.bytesSent = bytesSent;
+      call.bytesReceived = bytesReceived;
+      call.commit();
+    }
+  }
+
+  /**
+   * Starts the event of a body serialization.
+   *
+   * @return The event, or null if it is not recorded.
+   */
+  public static Object beginSerialization() {
+    if (!SERIALIZATION.isEnabled()) {
+      return null;
+    }
+
+    SerializationEvent event = new SerializationEvent();
+    event.begin();
+
+    return event;
+  }
+
+  /**
+   * Ends the event of a body serialization and commits it.
+   *
+   * @param event       The event returned by {@link #beginSerialization()}, or null.
+   * @param type        The type of the serialized value.
+   * @param contentType The content type of the body.
+   */
+  public static void endSerialization(Object event, Class<?> type, String contentType) {
+    if (Objects.isNull(event)) {
+      return;
+    }
+
+    SerializationEvent serialization = (SerializationEvent) event;
+    serialization.end();
+
+    if (serialization.shouldCommit()) {
+      serialization.type = type;
+      serialization.contentType = contentType;
+      serialization.commit();
+    }
+  }
+
+  /**
+   * Starts the event of a body deserialization.
+   *
+   * @return The event, or null if it is not recorded.
+   */
+  public static Object beginDeserialization() {
+    if (!DESERIALIZATION.isEnabled()) {
+      return null;
+    }
+
+    DeserializationEvent event = new DeserializationEvent();
+    event.begin();
+
+    return event;
+  }
+
+  /**
+   * Ends the event of a body deserialization and commits it.
+   *
+   * @param event       The event returned by {@link #beginDeserialization()}, or null.
+   * @param type        The name of the deserialized type.
+   * @param contentType The content type of the body, or null if it is unknown.
+   */
+  public static void endDeserialization(Object event, String type, String contentType) {
+    if (Objects.isNull(event)) {
+      return;
+    }
+
+    DeserializationEvent deserialization = (DeserializationEvent) event;
+    deserialization.end();
+
+    if (deserialization.shouldCommit()) {
+      deserialization.type = type;
+      deserialization.contentType = contentType;
+      deserialization.commit();
+    }
+  }
+
+  /**
+   * The JFR event of an HTTP call, lasting until the response headers are received.
+   */
+  @Name("com.thewaterfall.request.Call")
+  @Label("HTTP Call")
+  @Category("Fluent Request")
+  @Description("An attempt of an HTTP request, until its response headers are received")
+  static class CallEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("URL Template")
+    String route;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Status")
+    int status;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    long bytesSent;
+
+    @Label("Bytes Received")
+    @DataAmount
+    long bytesReceived;
+  }
+
+  /**
+   * The JFR event of a request body serialization.
+   */
+  @Name("com.thewaterfall.request.Serialization")
+  @Label("Body Serialization")
+  @Category("Fluent Request")
+  @Description("Serialization of a request body into the request stream")
+  static class SerializationEvent extends Event {
+    @Label("Type")
+    Class<?> type;
+
+    @Label("Content Type")
+    String contentType;
+  }
+
+  /**
+   * The JFR event of a response body deserialization.
+   */
+  @Name("com.thewaterfall.request.Deserialization")
+  @Label("Body Deserialization")
+  @Category("Fluent Request")
+  @Description("Deserialization of a response body from the response stream")
+  static class DeserializationEvent extends Event {
+    @Label("Type")
+    String type;
+
+    @Label("Content Type")
+    String contentType;
+  }
+}
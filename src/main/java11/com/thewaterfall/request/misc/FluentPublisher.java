@@ -0,0 +1,212 @@
+package com.thewaterfall.request.misc;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>The FluentPublisher class publishes the records of a {@link FluentStream} as a
+ * {@code java.util.concurrent.Flow.Publisher}. Each subscriber gets its own stream, opened on its first
+ * request, and records are read from the response only as fast as the subscriber requests them.
+ * Cancelling the subscription closes the stream, which cancels the call of a response that was not read
+ * to the end.</p>
+ *
+ * <p>This is the Java 11 version of the class, loaded from the multi-release JAR on Java 11 or newer.
+ * Records are read and published on the Executor, one task at a time per subscription, so reading a slow
+ * response does not block the thread requesting records when the Executor runs tasks on other threads.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code FluentRequest.Builder<byte[]> export = FluentRequest.request("https://api.example.com/export");
+ *
+ * Flow.Publisher<Event> events = new FluentPublisher<>(() -> export.lines(Event.class), executor);}</pre>
+ *
+ * @param <T> The type of the records.
+ */
+public class FluentPublisher<T> implements Flow.Publisher<T> {
+  private final Callable<FluentStream<T>> source;
+  private final Executor executor;
+
+  /**
+   * Constructs a FluentPublisher opening a new stream for each subscriber.
+   *
+   * @param source   Opens the stream of records, by sending the request.
+   * @param executor The Executor the records are read and published on.
+   */
+  public FluentPublisher(Callable<FluentStream<T>> source, Executor executor) {
+    this.source = source;
+    this.executor = executor;
+  }
+
+  /**
+   * Checks if the Flow API is supported by the running Java version.
+   *
+   * @return true if the Flow API is supported, false otherwise.
+   */
+  public static boolean isSupported() {
+    return true;
+  }
+
+  /**
+   * Subscribes to the records of a new stream, opened on the first request of the subscriber.
+   *
+   * @param subscriber The subscriber.
+   */
+  @Override
+  public void subscribe(Flow.Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber, "Subscriber must not be null");
+    subscriber.onSubscribe(new Subscription(subscriber));
+  }
+
+  /**
+   * The Subscription class reads the records requested by a single subscriber. Requests and cancellations
+   * schedule a drain of the stream, and only one drain runs at a time.
+   */
+  private class Subscription implements Flow.Subscription, Runnable {
+    private final Flow.Subscriber<? super T> subscriber;
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile boolean cancelled;
+    private volatile IllegalArgumentException invalid;
+    private FluentStream<T> stream;
+    private boolean done;
+
+    private Subscription(Flow.Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalid = new IllegalArgumentException("Requested records must be positive: " + n);
+        cancelled = true;
+        schedule();
+        return;
+      }
+
+      requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+      schedule();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      schedule();
+    }
+
+    /**
+     * Runs a drain on the Executor, unless one is running, which then drains again.
+     */
+    private void schedule() {
+      if (pending.getAndIncrement() == 0) {
+        executor.execute(this);
+      }
+    }
+
+    @Override
+    public void run() {
+      int missed = 1;
+
+      do {
+        drain();
+        missed = pending.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    /**
+     * Publishes records until the requested ones are published, the stream is over or the subscription is
+     * cancelled. An invalid request cancels the subscription with an error. Only errors of the stream are
+     * signalled to the subscriber: if the subscriber itself throws, the subscription is cancelled and the
+     * error is rethrown on the Executor, without signalling the subscriber again.
+     */
+    private void drain() {
+      if (done) {
+        return;
+      }
+
+      if (Objects.isNull(stream) && !cancelled) {
+        try {
+          stream = source.call();
+        } catch (Exception e) {
+          fail(e);
+          return;
+        }
+      }
+
+      long published = 0;
+      long demand = requested.get();
+
+      while (!cancelled) {
+        if (published == demand) {
+          demand = requested.addAndGet(-published);
+          published = 0;
+
+          if (demand == 0) {
+            return;
+          }
+        }
+
+        T record = null;
+        boolean more;
+
+        try {
+          more = stream.hasNext();
+
+          if (more) {
+            record = stream.next();
+          }
+        } catch (RuntimeException e) {
+          fail(e);
+          return;
+        }
+
+        if (!more) {
+          finish();
+          subscriber.onComplete();
+          return;
+        }
+
+        try {
+          subscriber.onNext(record);
+        } catch (Throwable e) {
+          cancelled = true;
+          finish();
+          throw e;
+        }
+
+        published++;
+      }
+
+      finish();
+
+      if (Objects.nonNull(invalid)) {
+        subscriber.onError(invalid);
+      }
+    }
+
+    /**
+     * Ends the subscription after an error of the stream and signals it to the subscriber.
+     *
+     * @param e The error.
+     */
+    private void fail(Exception e) {
+      finish();
+      subscriber.onError(e);
+    }
+
+    /**
+     * Closes the stream, if it was opened, and ends the subscription.
+     */
+    private void finish() {
+      done = true;
+
+      if (Objects.nonNull(stream)) {
+        stream.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.thewaterfall.request.misc;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>The FluentVirtualThreads class provides access to virtual threads when they are available.</p>
+ *
+ * <p>This is the Java 21 version of the class, loaded from the multi-release JAR on Java 21 or newer.</p>
+ */
+public class FluentVirtualThreads {
+  /**
+   * Checks if virtual threads are supported by the running Java version.
+   *
+   * @return true if virtual threads are supported, false otherwise.
+   */
+  public static boolean isSupported() {
+    return true;
+  }
+
+  /**
+   * Creates an ExecutorService that starts a new virtual thread for each task.
+   *
+   * @return The virtual thread ExecutorService.
+   */
+  public static ExecutorService newExecutor() {
+    return Executors.newVirtualThreadPerTaskExecutor();
+  }
+}